@@ -0,0 +1,82 @@
+package com.exercise1.YuenKwan.LI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ingesting and draining a batch through the bulk methods against a loop
+ * of addLast and removeFirst calls. Each benchmark adds a batch and then
+ * removes it, so the list size stays fixed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkBenchmark {
+
+  @Param({"16", "1024"})
+  int batch;
+
+  DoublyLinkedList<Integer> list;
+  Integer[] elements;
+  List<Integer> sink;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    list = new DoublyLinkedList<>();
+    for (int i = 0; i < 1024; i++)
+      list.addLast(i);
+    elements = new Integer[batch];
+    for (int i = 0; i < batch; i++)
+      elements[i] = i;
+    sink = new ArrayList<>(batch);
+  }
+
+  @Benchmark
+  public int loopAddLastRemoveFirst() {
+    for (Integer e : elements)
+      list.addLast(e);
+    for (int i = 0; i < batch; i++)
+      list.removeFirst();
+    return list.size();
+  }
+
+  @Benchmark
+  public int bulkAddLastRemoveFirst() {
+    list.addAllLast(elements);
+    return list.removeFirst(batch);
+  }
+
+  @Benchmark
+  public int loopAddLastDrain() {
+    for (Integer e : elements)
+      list.addLast(e);
+    sink.clear();
+    for (int i = 0; i < batch; i++)
+      sink.add(list.removeFirst());
+    return sink.size();
+  }
+
+  @Benchmark
+  public int bulkAddLastDrain() {
+    list.addAllLast(elements);
+    sink.clear();
+    return list.drainTo(sink, batch);
+  }
+}
@@ -0,0 +1,71 @@
+package com.exercise1.YuenKwan.LI;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full traversals of a DoublyLinkedList whose nodes have been scattered
+ * across the heap by a random permutation, before and after compact().
+ * applyPermutation relinks the existing nodes, so afterwards list order
+ * no longer follows allocation order; compact() restores it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompactionBenchmark {
+
+  @Param({"65536", "1048576"})
+  int size;
+
+  @Param({"false", "true"})
+  boolean compacted;
+
+  /** Never matches, so find walks the whole list */
+  static final Predicate<Integer> NONE = e -> false;
+
+  DoublyLinkedList<Integer> list;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    list = new DoublyLinkedList<>();
+    for (int i = 0; i < size; i++)
+      list.addLast(i);
+    int[] order = new int[size];                // a random permutation
+    Random random = new Random(42);
+    for (int i = 0; i < size; i++) {
+      int j = random.nextInt(i + 1);
+      order[i] = order[j];
+      order[j] = i;
+    }
+    list.applyPermutation(order);
+    if (compacted) list.compact();
+    System.gc();                                // settle the nodes in the old generation
+  }
+
+  @Benchmark
+  public Integer traverse() {
+    return list.find(NONE);
+  }
+
+  @Benchmark
+  public String traverseToString() {
+    return list.toString();
+  }
+}
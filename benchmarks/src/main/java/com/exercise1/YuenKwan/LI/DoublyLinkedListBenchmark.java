@@ -0,0 +1,151 @@
+package com.exercise1.YuenKwan.LI;
+
+import java.util.ArrayDeque;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End operations and swapTwoNodes on the exercise 1 DoublyLinkedList,
+ * with java.util.LinkedList and ArrayDeque as baselines.
+ * Run with -prof gc to report allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DoublyLinkedListBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  int size;
+
+  DoublyLinkedList<Integer> list;
+  LinkedList<Integer> linked;
+  ArrayDeque<Integer> deque;
+
+  /** Nodes swapped by the swap benchmarks */
+  DoublyLinkedList.Node<Integer> adjacent1, adjacent2, distant1, distant2;
+
+  /** Permutation that reverses the list */
+  int[] reverse;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    list = new DoublyLinkedList<>();
+    linked = new LinkedList<>();
+    deque = new ArrayDeque<>();
+    for (int i = 0; i < size; i++) {
+      list.addLast(i);
+      linked.addLast(i);
+      deque.addLast(i);
+    }
+    adjacent1 = list.nodeAt(size / 2 - 1);
+    adjacent2 = list.nodeAt(size / 2);
+    distant1 = list.nodeAt(1);
+    distant2 = list.nodeAt(size - 2);
+    reverse = new int[size];
+    for (int i = 0; i < size; i++)
+      reverse[i] = size - 1 - i;
+  }
+
+  // Each end benchmark pairs an add with a remove so the size stays fixed.
+
+  @Benchmark
+  public Integer addFirstRemoveFirst() {
+    list.addFirst(size);
+    return list.removeFirst();
+  }
+
+  @Benchmark
+  public Integer addLastRemoveLast() {
+    list.addLast(size);
+    return list.removeLast();
+  }
+
+  @Benchmark
+  public Integer addLastRemoveFirst() {
+    list.addLast(list.first());
+    return list.removeFirst();
+  }
+
+  @Benchmark
+  public Integer linkedListAddFirstRemoveFirst() {
+    linked.addFirst(size);
+    return linked.removeFirst();
+  }
+
+  @Benchmark
+  public Integer linkedListAddLastRemoveLast() {
+    linked.addLast(size);
+    return linked.removeLast();
+  }
+
+  @Benchmark
+  public Integer linkedListAddLastRemoveFirst() {
+    linked.addLast(linked.getFirst());
+    return linked.removeFirst();
+  }
+
+  @Benchmark
+  public Integer arrayDequeAddFirstRemoveFirst() {
+    deque.addFirst(size);
+    return deque.removeFirst();
+  }
+
+  @Benchmark
+  public Integer arrayDequeAddLastRemoveLast() {
+    deque.addLast(size);
+    return deque.removeLast();
+  }
+
+  @Benchmark
+  public Integer arrayDequeAddLastRemoveFirst() {
+    deque.addLast(deque.getFirst());
+    return deque.removeFirst();
+  }
+
+  // Swapping twice restores the original order for the next invocation.
+  // swapAdjacent passes the adjacent nodes in list order both times and
+  // swapAdjacentReversed passes them in reverse list order both times.
+
+  @Benchmark
+  public DoublyLinkedList<Integer> swapAdjacent() {
+    list.swapTwoNodes(adjacent1, adjacent2);
+    list.swapTwoNodes(adjacent2, adjacent1);
+    return list;
+  }
+
+  @Benchmark
+  public DoublyLinkedList<Integer> swapAdjacentReversed() {
+    list.swapTwoNodes(adjacent2, adjacent1);
+    list.swapTwoNodes(adjacent1, adjacent2);
+    return list;
+  }
+
+  @Benchmark
+  public DoublyLinkedList<Integer> swapNonAdjacent() {
+    list.swapTwoNodes(distant1, distant2);
+    list.swapTwoNodes(distant1, distant2);
+    return list;
+  }
+
+  @Benchmark
+  public DoublyLinkedList<Integer> applyReversePermutation() {
+    list.applyPermutation(reverse);
+    return list;
+  }
+}
@@ -0,0 +1,85 @@
+package com.exercise1.YuenKwan.LI;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Unsuccessful searches (full scans) of lists of three-letter codes drawn
+ * from a few thousand distinct values, each occurrence a separate String
+ * instance: DoublyLinkedList.find with equals against
+ * EncodedDoublyLinkedList.indexOf comparing int codes. The main method
+ * reports the footprint of both lists at the benchmarked sizes:
+ *   java -cp target/benchmarks.jar com.exercise1.YuenKwan.LI.EncodedListBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EncodedListBenchmark {
+
+  @Param({"65536", "1048576"})
+  int size;
+
+  @Param({"3000"})
+  int distinct;
+
+  DoublyLinkedList<String> generic;
+  EncodedDoublyLinkedList encoded;
+
+  /** A code that is interned but never added, so searches scan everything */
+  String absent;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    String[] codes = new String[distinct + 1];
+    for (int i = 0; i <= distinct; i++)
+      codes[i] = "" + (char) ('A' + i % 26) + (char) ('A' + i / 26 % 26) + (char) ('A' + i / 676 % 26);
+    absent = codes[distinct];
+    generic = new DoublyLinkedList<>();
+    encoded = new EncodedDoublyLinkedList();
+    encoded.symbols().intern(absent);
+    Random random = new Random(42);
+    for (int i = 0; i < size; i++) {
+      String e = new String(codes[random.nextInt(distinct)]);   // a duplicate instance
+      generic.addLast(e);
+      encoded.addLast(e);
+    }
+  }
+
+  public static void main(String[] args) {
+    for (int size : new int[] {65536, 1048576}) {
+      EncodedListBenchmark lists = new EncodedListBenchmark();
+      lists.size = size;
+      lists.distinct = 3000;
+      lists.setUp();
+      System.out.println("size " + size);
+      System.out.println("  generic: " + lists.generic.footprint());
+      System.out.println("  encoded: " + lists.encoded.footprint());
+    }
+  }
+
+  @Benchmark
+  public String genericFind() {
+    return generic.find(absent::equals);
+  }
+
+  @Benchmark
+  public int encodedIndexOf() {
+    return encoded.indexOf(absent);
+  }
+}
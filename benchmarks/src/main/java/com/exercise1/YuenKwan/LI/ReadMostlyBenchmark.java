@@ -0,0 +1,161 @@
+package com.exercise1.YuenKwan.LI;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A read-mostly workload on one shared list, run by 1 to 32 threads over
+ * either a ConcurrentDoublyLinkedList or a DoublyLinkedList behind a
+ * synchronized wrapper. Every thread performs the same number of
+ * operations per invocation, 99% of them reads (first, last and size,
+ * with one full iteration in every 32 reads) and 1% writes (a swap, or
+ * moving the first element to the end in a single write, so the size
+ * never changes). With perfect scaling the time per invocation stays flat
+ * as threads are added.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadMostlyBenchmark {
+
+  @Param({"1", "2", "4", "8", "16", "32"})
+  int threads;
+
+  /** Elements in the shared list */
+  @Param({"64"})
+  int size;
+
+  /** Operations per thread per invocation */
+  @Param({"100000"})
+  int operations;
+
+  ExecutorService pool;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    pool = Executors.newFixedThreadPool(threads);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    pool.shutdownNow();
+  }
+
+  /** List operations the workload needs; one implementation per contender. */
+  private interface SharedList {
+    Integer first();
+    Integer last();
+    int size();
+    long sum();
+    void swap(int i, int j);
+    /** Moves the first element to the end, atomically, so the size never drops. */
+    void cycle();
+  }
+
+  @Benchmark
+  public long stamped() throws InterruptedException {
+    ConcurrentDoublyLinkedList<Integer> list = new ConcurrentDoublyLinkedList<>();
+    for (int i = 0; i < size; i++)
+      list.addLast(i);
+    return run(new SharedList() {
+      public Integer first() { return list.first(); }
+      public Integer last() { return list.last(); }
+      public int size() { return list.size(); }
+      public long sum() {
+        long sum = 0;
+        for (Object e : list.toArray()) sum += (Integer) e;
+        return sum;
+      }
+      public void swap(int i, int j) { list.swap(i, j); }
+      public void cycle() { list.rotate(); }
+    });
+  }
+
+  @Benchmark
+  public long synchronizedWrapper() throws InterruptedException {
+    DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+    for (int i = 0; i < size; i++)
+      list.addLast(i);
+    return run(new SharedList() {
+      public synchronized Integer first() { return list.first(); }
+      public synchronized Integer last() { return list.last(); }
+      public synchronized int size() { return list.size(); }
+      public synchronized long sum() {
+        long sum = 0;
+        for (DoublyLinkedList.Node<Integer> walk = list.header().getNext(); walk != list.trailer();
+             walk = walk.getNext())
+          sum += walk.getElement();
+        return sum;
+      }
+      public synchronized void swap(int i, int j) {
+        DoublyLinkedList.Node<Integer> node1 = list.nodeAt(Math.min(i, j));
+        DoublyLinkedList.Node<Integer> node2 = list.nodeAt(Math.max(i, j));
+        if (node1 != node2) list.swapTwoNodes(node1, node2);
+      }
+      public synchronized void cycle() {
+        Integer e = list.removeFirst();
+        if (e != null) list.addLast(e);
+      }
+    });
+  }
+
+  /** Runs the operations on all threads and returns a checksum of the reads. */
+  private long run(SharedList list) throws InterruptedException {
+    AtomicLong checksum = new AtomicLong();
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    CountDownLatch done = new CountDownLatch(threads);
+    for (int t = 0; t < threads; t++) {
+      SplittableRandom random = new SplittableRandom(t);
+      pool.execute(() -> {
+        try {
+          long local = 0;
+          for (int k = 0; k < operations; k++) {
+            int r = random.nextInt(100 * 32);
+            if (r < 32) {                          // 1% writes
+              if ((r & 1) == 0) list.swap(random.nextInt(size - 1), random.nextInt(size - 1));
+              else list.cycle();
+            } else if (r % 32 == 0) {
+              local += list.sum();
+            } else {
+              switch (r % 3) {
+                case 0: local += list.first(); break;
+                case 1: local += list.last(); break;
+                default: local += list.size();
+              }
+            }
+          }
+          checksum.addAndGet(local);
+        } catch (RuntimeException e) {
+          failure.compareAndSet(null, e);
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    done.await();
+    if (failure.get() != null) throw failure.get();
+    return checksum.get();
+  }
+}
@@ -0,0 +1,113 @@
+package com.exercise1.YuenKwan.LI;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * find on a self-organizing DoublyLinkedList under Zipf-distributed keys.
+ * Besides the time per find, the probes and finds counters report the
+ * number of elements tested and the number of finds made, so probes
+ * divided by finds is the average search length for each organization.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SelfOrganizingBenchmark {
+
+  @Param({"1024"})
+  int size;
+
+  /** Zipf exponent of the key distribution */
+  @Param({"0.8", "1.2"})
+  double skew;
+
+  @Param({"NONE", "MOVE_TO_FRONT", "TRANSPOSE", "COUNT"})
+  DoublyLinkedList.Organization organization;
+
+  /** Number of keys drawn ahead of time */
+  static final int KEYS = 1 << 20;
+
+  DoublyLinkedList<Integer> list;
+  int[] keys;
+  int next;
+
+  /** Predicate matching the current key, which counts the elements it tests */
+  final class Probe implements Predicate<Integer> {
+    int key;
+    long tested;
+    public boolean test(Integer e) {
+      tested++;
+      return e == key;
+    }
+  }
+
+  final Probe probe = new Probe();
+
+  /** Elements tested and finds made, reported alongside the time */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Counters {
+    public long probes;
+    public long finds;
+
+    @Setup(Level.Iteration)
+    public void reset() { probes = finds = 0; }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(42);
+    double[] cdf = new double[size];           // rank r has weight 1/(r+1)^skew
+    double total = 0;
+    for (int r = 0; r < size; r++) {
+      total += 1 / Math.pow(r + 1, skew);
+      cdf[r] = total;
+    }
+    List<Integer> byRank = new ArrayList<>();  // ranks are assigned to keys at random
+    for (int i = 0; i < size; i++)
+      byRank.add(i);
+    Collections.shuffle(byRank, random);
+    keys = new int[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      int r = Arrays.binarySearch(cdf, random.nextDouble() * total);
+      keys[i] = byRank.get(r < 0 ? -r - 1 : r);
+    }
+    list = new DoublyLinkedList<>();
+    for (int i = 0; i < size; i++)
+      list.addLast(i);
+    list.setOrganization(organization);
+  }
+
+  @Benchmark
+  public Integer find(Counters counters) {
+    probe.key = keys[next];
+    next = (next + 1) & (KEYS - 1);
+    long before = probe.tested;
+    Integer found = list.find(probe);
+    counters.probes += probe.tested - before;
+    counters.finds++;
+    return found;
+  }
+}
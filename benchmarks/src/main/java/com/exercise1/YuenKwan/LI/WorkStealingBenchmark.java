@@ -0,0 +1,112 @@
+package com.exercise1.YuenKwan.LI;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A fork/join-style workload, run by 1 to 64 worker threads over either a
+ * WorkStealingDeque or a single DoublyLinkedList behind one lock. Each
+ * task of depth d > 0 spawns two tasks of depth d - 1, so one invocation
+ * processes a binary tree of 2^(depth+1) - 1 tasks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkStealingBenchmark {
+
+  @Param({"1", "2", "4", "8", "16", "32", "64"})
+  int threads;
+
+  /** Depth of the task tree */
+  @Param({"16"})
+  int depth;
+
+  /** Simulated work per task, in JMH CPU tokens */
+  @Param({"50"})
+  int work;
+
+  ExecutorService pool;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    pool = Executors.newFixedThreadPool(threads);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    pool.shutdownNow();
+  }
+
+  /** Queue operations a worker needs; one implementation per contender. */
+  private interface TaskQueue {
+    void push(int worker, Integer task);
+    Integer pop(int worker);
+  }
+
+  @Benchmark
+  public int sharded() throws InterruptedException {
+    WorkStealingDeque<Integer> deque = new WorkStealingDeque<>(threads);
+    return run(new TaskQueue() {
+      public void push(int worker, Integer task) { deque.push(worker, task); }
+      public Integer pop(int worker) { return deque.pop(worker); }
+    });
+  }
+
+  @Benchmark
+  public int singleLocked() throws InterruptedException {
+    DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+    return run(new TaskQueue() {
+      public synchronized void push(int worker, Integer task) { list.addLast(task); }
+      public synchronized Integer pop(int worker) { return list.removeLast(); }
+    });
+  }
+
+  /** Runs the task tree to completion on all threads. */
+  private int run(TaskQueue queue) throws InterruptedException {
+    AtomicInteger remaining = new AtomicInteger((1 << (depth + 1)) - 1);
+    CountDownLatch done = new CountDownLatch(threads);
+    queue.push(0, depth);
+    for (int w = 0; w < threads; w++) {
+      int worker = w;
+      pool.execute(() -> {
+        while (remaining.get() > 0) {
+          Integer task = queue.pop(worker);
+          if (task == null) {
+            Thread.onSpinWait();
+            continue;
+          }
+          Blackhole.consumeCPU(work);
+          if (task > 0) {
+            queue.push(worker, task - 1);
+            queue.push(worker, task - 1);
+          }
+          remaining.decrementAndGet();
+        }
+        done.countDown();
+      });
+    }
+    done.await();
+    return remaining.get();
+  }
+}
@@ -0,0 +1,100 @@
+package com.exercise1.YuenKwan.LI;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full scans in both directions and end operations on XorDoublyLinkedList
+ * against DoublyLinkedList. The main method reports the footprint of both
+ * lists at the benchmarked sizes:
+ *   java -cp target/benchmarks.jar com.exercise1.YuenKwan.LI.XorListBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class XorListBenchmark {
+
+  @Param({"65536", "1048576"})
+  int size;
+
+  /** Never matches, so searches walk the whole list */
+  static final Predicate<Integer> NONE = e -> false;
+
+  DoublyLinkedList<Integer> list;
+  XorDoublyLinkedList<Integer> xor;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    list = new DoublyLinkedList<>();
+    xor = new XorDoublyLinkedList<>();
+    for (int i = 0; i < size; i++) {
+      list.addLast(i);
+      xor.addLast(i);
+    }
+  }
+
+  /** Prints the footprint of both lists at each size benchmarked. */
+  public static void main(String[] args) {
+    for (int size : new int[] {65536, 1048576}) {
+      XorListBenchmark lists = new XorListBenchmark();
+      lists.size = size;
+      lists.setUp();
+      System.out.println("size " + size);
+      System.out.println("  linked: " + lists.list.footprint());
+      System.out.println("  xor:    " + lists.xor.footprint());
+    }
+  }
+
+  @Benchmark
+  public Integer linkedScan() {
+    return list.find(NONE);
+  }
+
+  @Benchmark
+  public Integer xorScan() {
+    return xor.find(NONE);
+  }
+
+  @Benchmark
+  public Integer xorScanReverse() {
+    return xor.findLast(NONE);
+  }
+
+  // Each end benchmark pairs an add with a remove so the size stays fixed.
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Integer linkedAddFirstRemoveLast() {
+    list.addFirst(size);
+    return list.removeLast();
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Integer xorAddFirstRemoveLast() {
+    xor.addFirst(size);
+    return xor.removeLast();
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public void xorReverse() {
+    xor.reverse();
+  }
+}
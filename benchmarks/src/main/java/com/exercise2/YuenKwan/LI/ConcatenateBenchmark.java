@@ -0,0 +1,66 @@
+package com.exercise2.YuenKwan.LI;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * concatenate on the exercise 2 DoublyLinkedList at several sizes,
+ * with LinkedList.addAll as the baseline.
+ * Run with -prof gc to report allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConcatenateBenchmark {
+
+  /** Number of elements in each of the two source lists */
+  @Param({"16", "1024", "65536"})
+  int size;
+
+  DoublyLinkedList<Integer> l1, l2;
+  LinkedList<Integer> linked1, linked2;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    l1 = new DoublyLinkedList<>();
+    l2 = new DoublyLinkedList<>();
+    linked1 = new LinkedList<>();
+    linked2 = new LinkedList<>();
+    for (int i = 0; i < size; i++) {
+      l1.addLast(i);
+      l2.addLast(size + i);
+      linked1.addLast(i);
+      linked2.addLast(size + i);
+    }
+  }
+
+  @Benchmark
+  public DoublyLinkedList<Integer> concatenate() {
+    DoublyLinkedList<Integer> l = new DoublyLinkedList<>();
+    l.concatenate(l1, l2);
+    return l;
+  }
+
+  @Benchmark
+  public LinkedList<Integer> linkedListAddAll() {
+    LinkedList<Integer> l = new LinkedList<>(linked1);
+    l.addAll(linked2);
+    return l;
+  }
+}
@@ -0,0 +1,73 @@
+package com.exercise2.YuenKwan.LI;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End operations on the exercise 2 DoublyLinkedList, with
+ * java.util.LinkedList as the baseline.
+ * Run with -prof gc to report allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EndOperationsBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  int size;
+
+  DoublyLinkedList<Integer> list;
+  LinkedList<Integer> linked;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    list = new DoublyLinkedList<>();
+    linked = new LinkedList<>();
+    for (int i = 0; i < size; i++) {
+      list.addLast(i);
+      linked.addLast(i);
+    }
+  }
+
+  // Each benchmark pairs an add with a remove so the size stays fixed.
+
+  @Benchmark
+  public Integer addFirstRemoveLast() {
+    list.addFirst(list.last());
+    return list.removeLast();
+  }
+
+  @Benchmark
+  public Integer addLastRemoveFirst() {
+    list.addLast(list.first());
+    return list.removeFirst();
+  }
+
+  @Benchmark
+  public Integer linkedListAddFirstRemoveLast() {
+    linked.addFirst(linked.getLast());
+    return linked.removeLast();
+  }
+
+  @Benchmark
+  public Integer linkedListAddLastRemoveFirst() {
+    linked.addLast(linked.getFirst());
+    return linked.removeFirst();
+  }
+}
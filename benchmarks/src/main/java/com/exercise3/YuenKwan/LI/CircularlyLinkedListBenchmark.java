@@ -0,0 +1,172 @@
+package com.exercise3.YuenKwan.LI;
+
+import java.util.ArrayDeque;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End operations, rotate and hasSameElementsSeq on CircularlyLinkedList,
+ * with java.util.LinkedList and ArrayDeque as baselines.
+ * Run with -prof gc to report allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CircularlyLinkedListBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  int size;
+
+  CircularlyLinkedList<Integer> ring;
+  LinkedList<Integer> linked;
+  ArrayDeque<Integer> deque;
+
+  /** Full bounded ring of the same size, overwritten in place */
+  CircularlyLinkedList<Integer> bounded;
+
+  /** Same sequence as ring, rotated by half its length */
+  CircularlyLinkedList<Integer> rotatedCopy;
+
+  /** Same elements as ring, except for the last one */
+  CircularlyLinkedList<Integer> mismatch;
+
+  /**
+   * Two rings of mostly equal elements, rotated against each other by an
+   * offset that is not a multiple of the 64-element period, so a search
+   * has to try many alignments
+   */
+  CircularlyLinkedList<Integer> duplicates1, duplicates2;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ring = new CircularlyLinkedList<>();
+    linked = new LinkedList<>();
+    deque = new ArrayDeque<>();
+    rotatedCopy = new CircularlyLinkedList<>();
+    mismatch = new CircularlyLinkedList<>();
+    duplicates1 = new CircularlyLinkedList<>();
+    duplicates2 = new CircularlyLinkedList<>();
+    bounded = new CircularlyLinkedList<>(size);
+    int offset = size / 2 + 1;
+    for (int i = 0; i < size; i++) {
+      ring.addLast(i);
+      linked.addLast(i);
+      deque.addLast(i);
+      bounded.addLast(i);
+      rotatedCopy.addLast((i + size / 2) % size);
+      mismatch.addLast(i == size - 1 ? -1 : i);
+      duplicates1.addLast(i % 64 == 0 ? 1 : 0);
+      duplicates2.addLast((i + offset) % size % 64 == 0 ? 1 : 0);
+    }
+    if (!isProperRotation(duplicates1, duplicates2))
+      throw new IllegalStateException("duplicates2 must be a rotation of duplicates1 but not equal to it");
+  }
+
+  /**
+   * Tests whether b is a rotation of a other than a itself, by brute force
+   * (hasSameElementsSeq is the method under test, so it is not used here).
+   */
+  private static boolean isProperRotation(CircularlyLinkedList<Integer> a, CircularlyLinkedList<Integer> b) {
+    int n = a.size();
+    int[] x = new int[n], y = new int[n];
+    for (int i = 0; i < n; i++) {                // a full lap leaves each ring as it was
+      x[i] = a.first();
+      a.rotate();
+      y[i] = b.first();
+      b.rotate();
+    }
+    boolean identical = true;
+    for (int i = 0; i < n; i++)
+      identical &= x[i] == y[i];
+    if (identical) return false;
+    for (int r = 1; r < n; r++) {
+      int i = 0;
+      while (i < n && x[(i + r) % n] == y[i]) i++;
+      if (i == n) return true;
+    }
+    return false;
+  }
+
+  // Each end benchmark pairs an add with a remove so the size stays fixed.
+
+  @Benchmark
+  public Integer addFirstRemoveFirst() {
+    ring.addFirst(size);
+    return ring.removeFirst();
+  }
+
+  @Benchmark
+  public Integer addLastRemoveFirst() {
+    ring.addLast(ring.first());
+    return ring.removeFirst();
+  }
+
+  @Benchmark
+  public Integer boundedAddLast() {
+    bounded.addLast(size);             // overwrites the oldest element
+    return bounded.first();
+  }
+
+  @Benchmark
+  public Integer linkedListAddLastRemoveFirst() {
+    linked.addLast(linked.getFirst());
+    return linked.removeFirst();
+  }
+
+  @Benchmark
+  public Integer arrayDequeAddLastRemoveFirst() {
+    deque.addLast(deque.getFirst());
+    return deque.removeFirst();
+  }
+
+  @Benchmark
+  public Integer rotate() {
+    ring.rotate();
+    return ring.first();
+  }
+
+  @Benchmark
+  public Integer linkedListRotate() {
+    linked.addLast(linked.removeFirst());
+    return linked.getFirst();
+  }
+
+  @Benchmark
+  public Integer arrayDequeRotate() {
+    deque.addLast(deque.removeFirst());
+    return deque.getFirst();
+  }
+
+  @Benchmark
+  public boolean sameElementsMatching() {
+    return CircularlyLinkedList.hasSameElementsSeq(ring, rotatedCopy);
+  }
+
+  @Benchmark
+  public boolean sameElementsNonMatching() {
+    return CircularlyLinkedList.hasSameElementsSeq(ring, mismatch);
+  }
+
+  // hasSameElementsSeq gives up as soon as it meets a second copy of L2's
+  // first element, so on these rings it answers false after a few nodes.
+  @Benchmark
+  public boolean sameElementsDuplicateHeavy() {
+    return CircularlyLinkedList.hasSameElementsSeq(duplicates1, duplicates2);
+  }
+}
@@ -0,0 +1,62 @@
+package com.exercise3.YuenKwan.LI;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full traversals of a bounded CircularlyLinkedList, before and after
+ * compact(). Rounds of removeEvery followed by refilling put recycled
+ * spare nodes back in reverse order, so list order drifts away from
+ * allocation order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompactionBenchmark {
+
+  @Param({"65536", "1048576"})
+  int size;
+
+  @Param({"false", "true"})
+  boolean compacted;
+
+  CircularlyLinkedList<Integer> ring;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ring = new CircularlyLinkedList<>(size);
+    int next = 0;
+    while (!ring.isFull()) ring.addLast(next++);
+    for (int k : new int[] {2, 3, 5, 7, 11, 13}) {
+      ring.removeEvery(k);
+      while (!ring.isFull()) ring.addLast(next++);   // reuses the removed nodes
+    }
+    if (compacted) ring.compact();
+    System.gc();                                // settle the nodes in the old generation
+  }
+
+  @Benchmark
+  public boolean sameElements() {
+    return CircularlyLinkedList.hasSameElementsSeq(ring, ring);
+  }
+
+  @Benchmark
+  public String traverseToString() {
+    return ring.toString();
+  }
+}
@@ -0,0 +1,62 @@
+package com.exercise3.YuenKwan.LI;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Selection throughput of smooth weighted round-robin against plain
+ * rotate()-based round-robin over the same members.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WeightedRoundRobinBenchmark {
+
+  @Param({"10000"})
+  int members;
+
+  /** Weights are drawn uniformly from [1, maxWeight] */
+  @Param({"1", "10", "100"})
+  int maxWeight;
+
+  WeightedCircularlyLinkedList<Integer> weighted;
+  CircularlyLinkedList<Integer> plain;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(42);
+    weighted = new WeightedCircularlyLinkedList<>();
+    plain = new CircularlyLinkedList<>();
+    for (int i = 0; i < members; i++) {
+      weighted.addLast(i, 1 + random.nextInt(maxWeight));
+      plain.addLast(i);
+    }
+  }
+
+  @Benchmark
+  public Integer weightedNext() {
+    return weighted.next();
+  }
+
+  @Benchmark
+  public Integer rotateNext() {
+    plain.rotate();
+    return plain.last();
+  }
+}
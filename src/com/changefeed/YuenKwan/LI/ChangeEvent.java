@@ -0,0 +1,255 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.changefeed.YuenKwan.LI;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single mutation of a list, as published by a ChangeFeed. Applying the
+ * events of a feed in order to a copy of the list's earlier contents
+ * reproduces the list. Positions count from the first element, at 0.
+ *
+ * @param <E>  the type of the list elements
+ */
+public final class ChangeEvent<E> {
+
+  /** The kinds of mutation. */
+  public enum Kind {
+    /** element was inserted at the front */
+    INSERTED_FIRST,
+    /** element was inserted at the end */
+    INSERTED_LAST,
+    /** element was inserted at position index1 */
+    INSERTED_AT,
+    /** element was removed from the front */
+    REMOVED_FIRST,
+    /** element was removed from the end */
+    REMOVED_LAST,
+    /** element was removed from position index1 */
+    REMOVED_AT,
+    /** every index1-th element was removed, in a single sweep from the front */
+    REMOVED_EVERY,
+    /** the elements at positions index1 and index2 were swapped */
+    SWAPPED,
+    /** the element at position index1 was moved to position index2 */
+    MOVED,
+    /** the elements were reordered so that position i holds the one from order[i] */
+    PERMUTED,
+    /** the first element was moved to the end */
+    ROTATED,
+    /** elements were appended, in order, at the end */
+    CONCATENATED
+  }
+
+  private final Kind kind;
+  private final E element;
+  private final int index1, index2;
+  private final int[] order;
+  private final List<E> elements;
+
+  private ChangeEvent(Kind kind, E element, int index1, int index2, int[] order, List<E> elements) {
+    this.kind = kind;
+    this.element = element;
+    this.index1 = index1;
+    this.index2 = index2;
+    this.order = order;
+    this.elements = elements;
+  }
+
+  // factory methods
+  /**
+   * Returns an event for an element inserted at the front.
+   * @param e  the inserted element
+   * @return an INSERTED_FIRST event
+   */
+  public static <E> ChangeEvent<E> insertedFirst(E e) {
+    return new ChangeEvent<>(Kind.INSERTED_FIRST, e, 0, -1, null, null);
+  }
+
+  /**
+   * Returns an event for an element inserted at the end.
+   * @param e  the inserted element
+   * @return an INSERTED_LAST event
+   */
+  public static <E> ChangeEvent<E> insertedLast(E e) {
+    return new ChangeEvent<>(Kind.INSERTED_LAST, e, -1, -1, null, null);
+  }
+
+  /**
+   * Returns an event for an element inserted at a position.
+   * @param index  the position of the new element
+   * @param e      the inserted element
+   * @return an INSERTED_AT event
+   */
+  public static <E> ChangeEvent<E> insertedAt(int index, E e) {
+    return new ChangeEvent<>(Kind.INSERTED_AT, e, index, -1, null, null);
+  }
+
+  /**
+   * Returns an event for an element removed from the front.
+   * @param e  the removed element
+   * @return a REMOVED_FIRST event
+   */
+  public static <E> ChangeEvent<E> removedFirst(E e) {
+    return new ChangeEvent<>(Kind.REMOVED_FIRST, e, 0, -1, null, null);
+  }
+
+  /**
+   * Returns an event for an element removed from the end.
+   * @param e  the removed element
+   * @return a REMOVED_LAST event
+   */
+  public static <E> ChangeEvent<E> removedLast(E e) {
+    return new ChangeEvent<>(Kind.REMOVED_LAST, e, -1, -1, null, null);
+  }
+
+  /**
+   * Returns an event for an element removed from a position.
+   * @param index  the position the element was removed from
+   * @param e      the removed element
+   * @return a REMOVED_AT event
+   */
+  public static <E> ChangeEvent<E> removedAt(int index, E e) {
+    return new ChangeEvent<>(Kind.REMOVED_AT, e, index, -1, null, null);
+  }
+
+  /**
+   * Returns an event for the removal of every k-th element.
+   * @param k  the step of the removal
+   * @return a REMOVED_EVERY event
+   */
+  public static <E> ChangeEvent<E> removedEvery(int k) {
+    return new ChangeEvent<>(Kind.REMOVED_EVERY, null, k, -1, null, null);
+  }
+
+  /**
+   * Returns an event for the swap of the elements at two positions.
+   * @param i  the first position
+   * @param j  the second position
+   * @return a SWAPPED event
+   */
+  public static <E> ChangeEvent<E> swapped(int i, int j) {
+    return new ChangeEvent<>(Kind.SWAPPED, null, i, j, null, null);
+  }
+
+  /**
+   * Returns an event for an element moved from one position to another.
+   * @param from  the position the element was at
+   * @param to    the position the element ended up at
+   * @return a MOVED event
+   */
+  public static <E> ChangeEvent<E> moved(int from, int to) {
+    return new ChangeEvent<>(Kind.MOVED, null, from, to, null, null);
+  }
+
+  /**
+   * Returns an event for a reordering of the elements.
+   * @param order  the new order; position i now holds the element from order[i]
+   * @return a PERMUTED event holding a copy of the order
+   */
+  public static <E> ChangeEvent<E> permuted(int[] order) {
+    return new ChangeEvent<>(Kind.PERMUTED, null, -1, -1, order.clone(), null);
+  }
+
+  /**
+   * Returns an event for the first element being moved to the end.
+   * @return a ROTATED event
+   */
+  public static <E> ChangeEvent<E> rotated() {
+    return new ChangeEvent<>(Kind.ROTATED, null, -1, -1, null, null);
+  }
+
+  /**
+   * Returns an event for elements appended at the end.
+   * @param elements  the appended elements, in order (may contain null)
+   * @return a CONCATENATED event holding a copy of the elements
+   */
+  public static <E> ChangeEvent<E> concatenated(List<E> elements) {
+    return new ChangeEvent<>(Kind.CONCATENATED, null, -1, -1, null,
+                             Collections.unmodifiableList(new ArrayList<>(elements)));
+  }
+
+  // accessor methods
+  /**
+   * Returns the kind of mutation.
+   * @return the kind of mutation
+   */
+  public Kind getKind() { return kind; }
+
+  /**
+   * Returns the element inserted or removed.
+   * @return the element (or null if the kind involves no single element)
+   */
+  public E getElement() { return element; }
+
+  /**
+   * Returns the first position involved: the position inserted at or
+   * removed from, the first of two swapped positions, the position an
+   * element was moved from, or the step of REMOVED_EVERY.
+   * @return the first position (or -1 if none)
+   */
+  public int getIndex1() { return index1; }
+
+  /**
+   * Returns the second of two swapped positions, or the position an
+   * element was moved to.
+   * @return the second position (or -1 if none)
+   */
+  public int getIndex2() { return index2; }
+
+  /**
+   * Returns the new order of a PERMUTED event.
+   * @return a copy of the order (or null for other kinds)
+   */
+  public int[] getOrder() { return order == null ? null : order.clone(); }
+
+  /**
+   * Returns the elements appended by a CONCATENATED event.
+   * @return the unmodifiable list of elements (or null for other kinds)
+   */
+  public List<E> getElements() { return elements; }
+
+  /** Produces a string representation of the event, for debugging. */
+  public String toString() {
+    StringBuilder sb = new StringBuilder(kind.name());
+    switch (kind) {
+      case INSERTED_FIRST: case INSERTED_LAST: case REMOVED_FIRST: case REMOVED_LAST:
+        sb.append('(').append(element).append(')'); break;
+      case INSERTED_AT: case REMOVED_AT:
+        sb.append('(').append(index1).append(", ").append(element).append(')'); break;
+      case REMOVED_EVERY:
+        sb.append('(').append(index1).append(')'); break;
+      case SWAPPED: case MOVED:
+        sb.append('(').append(index1).append(", ").append(index2).append(')'); break;
+      case PERMUTED:
+        sb.append(Arrays.toString(order)); break;
+      case CONCATENATED:
+        sb.append(elements); break;
+      default:
+    }
+    return sb.toString();
+  }
+}
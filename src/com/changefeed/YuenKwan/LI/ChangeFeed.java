@@ -0,0 +1,165 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.changefeed.YuenKwan.LI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * A change-data-capture feed of the mutations of one list, published as
+ * batches of ChangeEvents through java.util.concurrent.Flow.
+ *
+ * Events are gathered into a batch. At the end of each list operation
+ * the batch is published if every subscriber has requested more than it
+ * has been sent, so a subscriber that keeps up sees each mutation as soon
+ * as it is made. While a subscriber is busy, events gather until an
+ * operation ends with it waiting again or the batch reaches the batch
+ * size; call flush() to publish what is left when the list falls idle.
+ *
+ * Delivery is asynchronous and respects each subscriber's demand:
+ * batches wait in a bounded buffer per subscriber, and once a
+ * subscriber's buffer is full, publishing blocks the thread that mutates
+ * the list until that subscriber catches up. Subscribers must therefore
+ * not run on the mutating thread.
+ *
+ * A list only creates events while its feed is active, that is, from the
+ * first subscription until the end of an operation that finds no
+ * subscribers left (a cancellation is only seen once the subscriber's
+ * executor has processed it); without subscribers, a mutation costs one
+ * field check. A subscriber sees only the mutations made after it
+ * subscribed, so it should start from a copy of the list taken then.
+ *
+ * @param <E>  the type of the list elements
+ */
+public class ChangeFeed<E> implements Flow.Publisher<List<ChangeEvent<E>>> {
+
+  /** Default number of events per batch */
+  public static final int DEFAULT_BATCH_SIZE = 64;
+
+  /** Delivers batches to subscribers, honoring their demand */
+  private final SubmissionPublisher<List<ChangeEvent<E>>> publisher;
+
+  /** Number of events per batch */
+  private final int batchSize;
+
+  /** Events not yet published */
+  private List<ChangeEvent<E>> batch;
+
+  /** Whether there may be subscribers; rechecked at the end of each operation */
+  private volatile boolean active = false;
+
+  /** Creates a feed with the default executor, buffer and batch sizes. */
+  public ChangeFeed() {
+    this(ForkJoinPool.commonPool(), Flow.defaultBufferSize(), DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Creates a feed.
+   * @param executor    runs the subscribers
+   * @param bufferSize  the maximum number of batches buffered per subscriber
+   * @param batchSize   the number of events per batch (at least 1)
+   * @throws IllegalArgumentException if bufferSize or batchSize is not positive
+   */
+  public ChangeFeed(Executor executor, int bufferSize, int batchSize) {
+    if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+    this.publisher = new SubmissionPublisher<>(executor, bufferSize);
+    this.batchSize = batchSize;
+    this.batch = new ArrayList<>(batchSize);
+  }
+
+  /**
+   * Adds a subscriber, which receives every batch published from now on.
+   * @param subscriber  the subscriber
+   */
+  @Override
+  public void subscribe(Flow.Subscriber<? super List<ChangeEvent<E>>> subscriber) {
+    publisher.subscribe(subscriber);
+    active = true;
+  }
+
+  /**
+   * Tests whether the feed may have subscribers; lists skip creating
+   * events when it does not.
+   * @return true if events should be published, false otherwise
+   */
+  public boolean isActive() { return active; }
+
+  /**
+   * Publishes the single event of a list operation.
+   * @param event  the event to publish
+   */
+  public void publish(ChangeEvent<E> event) {
+    append(event);
+    endOperation();
+  }
+
+  /**
+   * Adds one of the events of a list operation that makes several,
+   * publishing the batch once full. Call endOperation after the last.
+   * @param event  the event to add
+   */
+  public void append(ChangeEvent<E> event) {
+    batch.add(event);
+    if (batch.size() >= batchSize) flush();
+  }
+
+  /**
+   * Ends a list operation: publishes the current batch if every subscriber
+   * is waiting for more, or drops it if there are no subscribers left.
+   */
+  public void endOperation() {
+    if (!batch.isEmpty()
+        && (publisher.estimateMinimumDemand() > 0 || !publisher.hasSubscribers()))
+      flush();
+  }
+
+  /**
+   * Publishes the current batch, if it holds any events. If the feed
+   * has lost all its subscribers, the batch is dropped and the feed
+   * becomes inactive.
+   */
+  public void flush() {
+    if (batch.isEmpty()) return;
+    List<ChangeEvent<E>> full = batch;
+    batch = new ArrayList<>(batchSize);
+    if (!publisher.hasSubscribers()) {
+      active = false;
+      if (publisher.hasSubscribers()) active = true;   // subscribed meanwhile
+      return;
+    }
+    publisher.submit(full);                     // blocks while a subscriber's buffer is full
+  }
+
+  /**
+   * Publishes the current batch and signals completion to all subscribers.
+   */
+  public void close() {
+    flush();
+    publisher.close();
+    active = false;
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.exercise1.YuenKwan.LI;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * A thread-safe doubly linked list for read-mostly sharing. Writers take
+ * the write lock of a StampedLock around the underlying DoublyLinkedList.
+ * first, last, size and isEmpty read optimistically: they read the fields
+ * they need without locking and then validate that no write intervened,
+ * retrying a few times before falling back to the read lock. A read
+ * that validates writes no shared memory, so readers do not contend with
+ * each other.
+ *
+ * Iterations copy the elements into an array under an optimistic read
+ * (bounded by the size, so a racing writer cannot make them loop), and
+ * take the read lock only if validation keeps failing. The action passed
+ * to forEach runs on the copy, after the lock has been released, so it
+ * may safely update the list.
+ */
+public class ConcurrentDoublyLinkedList<E> {
+  /** Optimistic attempts before falling back to the read lock */
+  private static final int OPTIMISTIC_ATTEMPTS = 4;
+
+  // instance variables of the ConcurrentDoublyLinkedList
+  /** The list guarded by the lock */
+  private final DoublyLinkedList<E> list = new DoublyLinkedList<>();
+
+  /** Guards every access to list */
+  private final StampedLock lock = new StampedLock();
+
+  /** Constructs a new empty list. */
+  public ConcurrentDoublyLinkedList() { }
+
+  // public accessor methods
+  /**
+   * Returns the number of elements in the linked list.
+   * @return number of elements in the linked list
+   */
+  public int size() {
+    for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+      long stamp = lock.tryOptimisticRead();
+      int n = list.size();
+      if (lock.validate(stamp)) return n;
+    }
+    long stamp = lock.readLock();
+    try {
+      return list.size();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Tests whether the linked list is empty.
+   * @return true if the linked list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size() == 0; }
+
+  /**
+   * Returns (but does not remove) the first element of the list.
+   * @return element at the front of the list (or null if empty)
+   */
+  public E first() {
+    for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+      long stamp = lock.tryOptimisticRead();
+      DoublyLinkedList.Node<E> node = list.header().getNext();  // the trailer if empty
+      E e = node == null ? null : node.getElement();          // null while half-built
+      if (lock.validate(stamp)) return e;
+    }
+    long stamp = lock.readLock();
+    try {
+      return list.first();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Returns (but does not remove) the last element of the list.
+   * @return element at the end of the list (or null if empty)
+   */
+  public E last() {
+    for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+      long stamp = lock.tryOptimisticRead();
+      DoublyLinkedList.Node<E> node = list.trailer().getPrev(); // the header if empty
+      E e = node == null ? null : node.getElement();
+      if (lock.validate(stamp)) return e;
+    }
+    long stamp = lock.readLock();
+    try {
+      return list.last();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Returns the elements of the list, in order, as a consistent copy.
+   * @return an array holding the elements
+   */
+  public Object[] toArray() {
+    for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp == 0) {                          // a writer holds the lock
+        Thread.onSpinWait();
+        continue;
+      }
+      Object[] copy = copy();
+      if (copy != null && lock.validate(stamp)) return copy;
+    }
+    long stamp = lock.readLock();
+    try {
+      return copy();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Performs the given action for each element, in order, on a
+   * consistent copy of the list taken by toArray.
+   * @param action  the action to perform
+   */
+  @SuppressWarnings("unchecked")
+  public void forEach(Consumer<? super E> action) {
+    for (Object e : toArray())
+      action.accept((E) e);
+  }
+
+  // public update methods
+  /**
+   * Adds an element to the front of the list.
+   * @param e   the new element to add
+   */
+  public void addFirst(E e) {
+    long stamp = lock.writeLock();
+    try {
+      list.addFirst(e);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Adds an element to the end of the list.
+   * @param e   the new element to add
+   */
+  public void addLast(E e) {
+    long stamp = lock.writeLock();
+    try {
+      list.addLast(e);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Removes and returns the first element of the list.
+   * @return the removed element (or null if empty)
+   */
+  public E removeFirst() {
+    long stamp = lock.writeLock();
+    try {
+      return list.removeFirst();
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Removes and returns the last element of the list.
+   * @return the removed element (or null if empty)
+   */
+  public E removeLast() {
+    long stamp = lock.writeLock();
+    try {
+      return list.removeLast();
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Moves the first element to the end of the list, as one write, so no
+   * reader or writer sees the list without it. Does nothing if the list
+   * is empty.
+   */
+  public void rotate() {
+    long stamp = lock.writeLock();
+    try {
+      if (!list.isEmpty()) list.addLast(list.removeFirst());
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Swaps the nodes at positions i and j, using swapTwoNodes.
+   * @param i  position of the first node
+   * @param j  position of the second node
+   * @throws IndexOutOfBoundsException if either position is not in [0, size)
+   */
+  public void swap(int i, int j) {
+    long stamp = lock.writeLock();
+    try {
+      DoublyLinkedList.Node<E> node1 = list.nodeAt(Math.min(i, j));   // in list order
+      DoublyLinkedList.Node<E> node2 = list.nodeAt(Math.max(i, j));
+      if (node1 != node2) list.swapTwoNodes(node1, node2);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  // private utilities
+  /**
+   * Copies the elements into a new array, following at most size links.
+   * Under an optimistic read a racing writer may leave the walk short, in
+   * which case null is returned (validation would fail anyway).
+   */
+  private Object[] copy() {
+    int n = list.size();
+    Object[] copy = new Object[n];
+    DoublyLinkedList.Node<E> walk = list.header().getNext();
+    for (int j = 0; j < n; j++) {
+      if (walk == null) return null;
+      copy[j] = walk.getElement();
+      walk = walk.getNext();
+    }
+    return copy;
+  }
+
+  /**
+   * Produces a string representation of a consistent copy of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    Object[] elements = toArray();
+    for (int j = 0; j < elements.length; j++) {
+      if (j > 0) sb.append(", ");
+      sb.append(elements[j]);
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
@@ -22,6 +22,21 @@
  */
 package com.exercise1.YuenKwan.LI;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+import com.changefeed.YuenKwan.LI.ChangeEvent;
+import com.changefeed.YuenKwan.LI.ChangeFeed;
+import com.footprint.YuenKwan.LI.Footprint;
+import com.journal.YuenKwan.LI.OperationLog;
+
 /**
  * A basic doubly linked list implementation.
  *
@@ -31,12 +46,28 @@ package com.exercise1.YuenKwan.LI;
  */
 public class DoublyLinkedList<E> {
 
+  //---------------- nested Organization enum ----------------
+  /**
+   * How find reorders the list after a successful search, so that
+   * frequently sought elements drift towards the front.
+   */
+  public enum Organization {
+    /** Leave the order unchanged. */
+    NONE,
+    /** Move the found element to the front. */
+    MOVE_TO_FRONT,
+    /** Swap the found element with its predecessor. */
+    TRANSPOSE,
+    /** Keep elements ordered by how often they have been found. */
+    COUNT
+  } //----------- end of nested Organization enum -----------
+
   //---------------- nested Node class ----------------
   /**
    * Node of a doubly linked list, which stores a reference to its
    * element and to both the previous and next node in the list.
    */
-  private static class Node<E> {
+  static class Node<E> {
 
     /** The element stored at this node */
     private E element;               // reference to the element stored at this node
@@ -54,7 +85,7 @@ public class DoublyLinkedList<E> {
      * @param p  reference to a node that should precede the new node
      * @param n  reference to a node that should follow the new node
      */
-    public Node(E e, Node<E> p, Node<E> n) {
+    private Node(E e, Node<E> p, Node<E> n) {
       element = e;
       prev = p;
       next = n;
@@ -84,16 +115,41 @@ public class DoublyLinkedList<E> {
      * Sets the node's previous reference to point to Node n.
      * @param p    the node that should precede this one
      */
-    public void setPrev(Node<E> p) { prev = p; }
+    private void setPrev(Node<E> p) { prev = p; }
 
     /**
      * Sets the node's next reference to point to Node n.
      * @param n    the node that should follow this one
      */
-    public void setNext(Node<E> n) { next = n; }
+    private void setNext(Node<E> n) { next = n; }
 
   } //----------- end of nested Node class -----------
 
+  //---------------- nested CountingNode class ----------------
+  /**
+   * Node that also counts how often find has found it. Only lists using
+   * the COUNT organization allocate these, so other lists do not pay for
+   * the extra field.
+   */
+  private static class CountingNode<E> extends Node<E> {
+
+    /** Number of successful finds of this node */
+    private int hits;                // access count
+
+    /**
+     * Creates a node with the given element, neighbors and access count.
+     *
+     * @param e     the element to be stored
+     * @param p     reference to a node that should precede the new node
+     * @param n     reference to a node that should follow the new node
+     * @param hits  the initial access count
+     */
+    private CountingNode(E e, Node<E> p, Node<E> n, int hits) {
+      super(e, p, n);
+      this.hits = hits;
+    }
+  } //----------- end of nested CountingNode class -----------
+
   // instance variables of the DoublyLinkedList
   /** Sentinel node at the beginning of the list */
   private Node<E> header;                    // header sentinel
@@ -104,6 +160,18 @@ public class DoublyLinkedList<E> {
   /** Number of elements in the list (not including sentinels) */
   private int size = 0;                      // number of elements in the list
 
+  /** Reusable buffer of node references for the bulk reordering methods */
+  private Node<E>[] scratch;                  // grown on demand, cleared after use
+
+  /** How find reorders the list */
+  private Organization organization = Organization.NONE;
+
+  /** Write-ahead log recording each mutation (null if none) */
+  private OperationLog<E> journal = null;     // optional journal
+
+  /** Feed publishing each mutation (null until requested) */
+  private ChangeFeed<E> feed = null;          // optional change feed
+
   /** Constructs a new empty list. */
   public DoublyLinkedList() {
     header = new Node<>(null, null, null);      // create header
@@ -142,13 +210,48 @@ public class DoublyLinkedList<E> {
     return trailer.getPrev().getElement();    // last element is before trailer
   }
 
+  /**
+   * Returns the header sentinel, for traversals by classes in this package.
+   * @return the header sentinel
+   */
+  Node<E> header() { return header; }
+
+  /**
+   * Returns the trailer sentinel, for traversals by classes in this package.
+   * @return the trailer sentinel
+   */
+  Node<E> trailer() { return trailer; }
+
+  /**
+   * Returns the node at the given position, for classes in this package,
+   * walking from whichever sentinel is closer.
+   * @param index   position of the node (0 is the first element)
+   * @return the node at that position
+   * @throws IndexOutOfBoundsException if index is not in [0, size)
+   */
+  Node<E> nodeAt(int index) {
+    if (index < 0 || index >= size)
+      throw new IndexOutOfBoundsException("Invalid index: " + index);
+    Node<E> walk;
+    if (index < size / 2) {
+      walk = header.getNext();
+      for (int j = 0; j < index; j++) walk = walk.getNext();
+    } else {
+      walk = trailer.getPrev();
+      for (int j = size - 1; j > index; j--) walk = walk.getPrev();
+    }
+    return walk;
+  }
+
   // public update methods
   /**
    * Adds an element to the front of the list.
    * @param e   the new element to add
    */
   public void addFirst(E e) {
+    if (journal != null) log(j -> j.addFirst(e));
     addBetween(e, header, header.getNext());    // place just after the header
+    if (publishing()) feed.publish(ChangeEvent.insertedFirst(e));
   }
 
   /**
@@ -156,7 +259,9 @@ public class DoublyLinkedList<E> {
    * @param e   the new element to add
    */
   public void addLast(E e) {
+    if (journal != null) log(j -> j.addLast(e));
     addBetween(e, trailer.getPrev(), trailer);  // place just before the trailer
+    if (publishing()) feed.publish(ChangeEvent.insertedLast(e));
   }
 
   /**
@@ -165,7 +270,10 @@ public class DoublyLinkedList<E> {
    */
   public E removeFirst() {
     if (isEmpty()) return null;                  // nothing to remove
-    return remove(header.getNext());             // first element is beyond header
+    if (journal != null) log(OperationLog::removeFirst);
+    E removed = remove(header.getNext());        // first element is beyond header
+    if (publishing()) feed.publish(ChangeEvent.removedFirst(removed));
+    return removed;
   }
 
   /**
@@ -174,10 +282,150 @@ public class DoublyLinkedList<E> {
    */
   public E removeLast() {
     if (isEmpty()) return null;                  // nothing to remove
-    return remove(trailer.getPrev());            // last element is before trailer
+    if (journal != null) log(OperationLog::removeLast);
+    E removed = remove(trailer.getPrev());       // last element is before trailer
+    if (publishing()) feed.publish(ChangeEvent.removedLast(removed));
+    return removed;
+  }
+
+  /** Adds the elements of an array, in order, to the front of the list. */
+  public void addAllFirst(E[] elements) { linkAll(Arrays.asList(elements).iterator(), true); }
+
+  /** Adds the given elements, in iteration order, to the front of the list. */
+  public void addAllFirst(Iterable<? extends E> elements) { linkAll(elements.iterator(), true); }
+
+  /** Adds the elements of another list (which may be this one) to the front of this list. */
+  public void addAllFirst(DoublyLinkedList<? extends E> other) { linkAll(other.elements(), true); }
+
+  /** Adds the elements of an array, in order, to the end of the list. */
+  public void addAllLast(E[] elements) { linkAll(Arrays.asList(elements).iterator(), false); }
+
+  /** Adds the given elements, in iteration order, to the end of the list. */
+  public void addAllLast(Iterable<? extends E> elements) { linkAll(elements.iterator(), false); }
+
+  /** Adds the elements of another list (which may be this one) to the end of this list. */
+  public void addAllLast(DoublyLinkedList<? extends E> other) { linkAll(other.elements(), false); }
+
+  /**
+   * Removes the first n elements of the list (or all of them, if there
+   * are fewer), unlinking them from the header as one run.
+   * @param n  the number of elements to remove
+   * @return the number of elements removed
+   * @throws IllegalArgumentException if n is negative
+   */
+  public int removeFirst(int n) {
+    if (n < 0) throw new IllegalArgumentException("Negative count: " + n);
+    return unlinkFirst(Math.min(n, size), null);
+  }
+
+  /**
+   * Removes up to max elements from the front of the list and adds them,
+   * in order, to the given collection. The elements are added before any
+   * is removed, so if the collection rejects one the list is unchanged.
+   * @param c    the collection to add the elements to
+   * @param max  the most elements to move
+   * @return the number of elements moved
+   * @throws IllegalArgumentException if max is negative
+   */
+  public int drainTo(Collection<? super E> c, int max) {
+    if (max < 0) throw new IllegalArgumentException("Negative count: " + max);
+    return unlinkFirst(Math.min(max, size), c);
   }
 
   // private update methods
+  /**
+   * Backs every addAllFirst and addAllLast overload. The new nodes are
+   * chained together privately first and then linked after the header (or
+   * before the trailer) in one step, updating the size once. As nothing is
+   * linked while the elements are read, they may come from this list.
+   */
+  private void linkAll(Iterator<? extends E> elements, boolean atFront) {
+    List<E> added = journal != null || publishing() ? new ArrayList<>() : null;
+    Node<E> first = null;
+    Node<E> last = null;
+    int count = 0;
+    while (elements.hasNext()) {
+      E e = elements.next();
+      Node<E> newest = newNode(e, last, null);
+      if (last == null) first = newest;
+      else last.setNext(newest);
+      last = newest;
+      count++;
+      if (added != null) added.add(e);
+    }
+    if (count == 0) return;
+    if (journal != null) log(atFront ? j -> j.prependAll(added) : j -> j.appendAll(added));
+    Node<E> predecessor = atFront ? header : trailer.getPrev();
+    Node<E> successor = predecessor.getNext();
+    first.setPrev(predecessor);
+    last.setNext(successor);
+    predecessor.setNext(first);
+    successor.setPrev(last);
+    size += count;
+    if (added != null && publishing()) {
+      if (atFront)
+        for (int j = count - 1; j >= 0; j--) feed.append(ChangeEvent.insertedFirst(added.get(j)));
+      else
+        for (E e : added) feed.append(ChangeEvent.insertedLast(e));
+      feed.endOperation();
+    }
+  }
+
+  /**
+   * Unlinks the first count nodes from the header as one run, first
+   * adding their elements in order to dest (if not null).
+   */
+  private int unlinkFirst(int count, Collection<? super E> dest) {
+    if (count == 0) return 0;
+    Node<E> last = header;
+    for (int j = 0; j < count; j++) {
+      last = last.getNext();
+      if (dest != null) dest.add(last.getElement());
+    }
+    if (journal != null) log(j -> j.removeFirst(count));
+    Node<E> first = header.getNext();
+    Node<E> successor = last.getNext();
+    header.setNext(successor);
+    successor.setPrev(header);
+    size -= count;
+    if (publishing()) {
+      for (Node<E> walk = first; walk != successor; walk = walk.getNext())
+        feed.append(ChangeEvent.removedFirst(walk.getElement()));
+      feed.endOperation();
+    }
+    return count;
+  }
+
+  /** Returns an iterator over the elements, from first to last. */
+  private Iterator<E> elements() {
+    return new Iterator<E>() {
+      private Node<E> walk = header.getNext();
+
+      public boolean hasNext() { return walk != trailer; }
+
+      public E next() {
+        if (walk == trailer) throw new NoSuchElementException();
+        E e = walk.getElement();
+        walk = walk.getNext();
+        return e;
+      }
+    };
+  }
+
+  /**
+   * Creates a node for the given element, with an access count if the
+   * organization is COUNT.
+   */
+  private Node<E> newNode(E e, Node<E> predecessor, Node<E> successor) {
+    if (organization == Organization.COUNT) return new CountingNode<>(e, predecessor, successor, 0);
+    return new Node<>(e, predecessor, successor);
+  }
+
+  /** Returns the access count of a node (zero if it does not keep one). */
+  private static int hits(Node<?> node) {
+    return node instanceof CountingNode ? ((CountingNode<?>) node).hits : 0;
+  }
+
   /**
    * Adds an element to the linked list in between the given nodes.
    * The given predecessor and successor should be neighboring each
@@ -188,7 +436,7 @@ public class DoublyLinkedList<E> {
    */
   private void addBetween(E e, Node<E> predecessor, Node<E> successor) {
     // create and link a new node
-    Node<E> newest = new Node<>(e, predecessor, successor);
+    Node<E> newest = newNode(e, predecessor, successor);
     predecessor.setNext(newest);
     successor.setPrev(newest);
     size++;
@@ -235,9 +483,21 @@ public class DoublyLinkedList<E> {
     if (node1 == null || node2 == null || node1 == node2) {
       return;
     }
+    if (journal != null || publishing()) {
+      int index1 = indexOf(node1), index2 = indexOf(node2);
+      if (journal != null) log(j -> j.swap(index1, index2));
+      if (publishing()) feed.publish(ChangeEvent.swapped(index1, index2));
+    }
 
     // Check if the nodes are adjacent
     if (node1.getNext() == node2 || node2.getNext() == node1) {
+      // Make node1 the earlier of the two
+      if (node2.getNext() == node1) {
+        Node<E> temp = node1;
+        node1 = node2;
+        node2 = temp;
+      }
+
       // Swap the previous references
       Node<E> tempPrev1 = node1.getPrev();
       node1.setPrev(node2);
@@ -305,6 +565,316 @@ public class DoublyLinkedList<E> {
     }
   }
 
+  /**
+   * Returns how find reorders the list.
+   * @return the current organization
+   */
+  public Organization getOrganization() { return organization; }
+
+  /**
+   * Sets how find reorders the list after a successful search. Switching
+   * to COUNT reallocates the nodes, as compact does, so that each carries
+   * an access count; nodes obtained earlier (for swapTwoNodes) no longer
+   * belong to the list. Counts are kept if the list leaves COUNT and
+   * later returns to it.
+   * @param organization  the organization to use
+   */
+  public void setOrganization(Organization organization) {
+    boolean counting = organization == Organization.COUNT && this.organization != Organization.COUNT;
+    this.organization = organization;
+    if (counting) reallocate();
+  }
+
+  /**
+   * Returns the first element satisfying the predicate, searching from
+   * the front, and then reorders the list according to its organization:
+   * MOVE_TO_FRONT relinks the found node after the header, TRANSPOSE swaps
+   * it with its predecessor using swapTwoNodes, and COUNT moves it ahead
+   * of any nodes found fewer times than it has been.
+   *
+   * @param p  the predicate to test elements with
+   * @return the element found (or null if none satisfies the predicate)
+   */
+  public E find(Predicate<? super E> p) {
+    int index = 0;
+    for (Node<E> walk = header.getNext(); walk != trailer; walk = walk.getNext(), index++) {
+      if (p.test(walk.getElement())) {
+        reorganize(walk, index);
+        return walk.getElement();
+      }
+    }
+    return null;
+  }
+
+  /** Reorders the list after the node at the given index was found. */
+  private void reorganize(Node<E> node, int index) {
+    switch (organization) {
+      case MOVE_TO_FRONT:
+        if (index > 0) move(node, index, header.getNext(), 0);
+        break;
+      case TRANSPOSE:
+        if (index > 0) swapTwoNodes(node.getPrev(), node);
+        break;
+      case COUNT: {
+        int hits = ++((CountingNode<E>) node).hits;
+        Node<E> successor = node;               // the node to move in front of
+        int to = index;
+        while (successor.getPrev() != header && hits(successor.getPrev()) < hits) {
+          successor = successor.getPrev();
+          to--;
+        }
+        if (to < index) move(node, index, successor, to);
+        break;
+      }
+      default:
+    }
+  }
+
+  /**
+   * Relinks the node at index from just before the given successor, so
+   * that it ends up at index to (which must be less than from).
+   */
+  private void move(Node<E> node, int from, Node<E> successor, int to) {
+    if (journal != null) log(j -> j.move(from, to));
+    node.getPrev().setNext(node.getNext());     // unlink the node
+    node.getNext().setPrev(node.getPrev());
+    Node<E> predecessor = successor.getPrev();  // and relink it before successor
+    node.setPrev(predecessor);
+    node.setNext(successor);
+    predecessor.setNext(node);
+    successor.setPrev(node);
+    if (publishing()) feed.publish(ChangeEvent.moved(from, to));
+  }
+
+  /**
+   * Reorders the whole list in one pass, so that the node at position i
+   * afterwards is the node that was at position newOrder[i]. Nodes are
+   * relinked rather than copied, so references to them stay valid. Runs
+   * in O(n) time and allocates nothing beyond a reusable buffer.
+   *
+   * @param newOrder  a permutation of 0..size()-1
+   * @throws IllegalArgumentException if newOrder is not such a permutation
+   */
+  public void applyPermutation(int[] newOrder) {
+    int n = size;
+    if (newOrder.length != n)
+      throw new IllegalArgumentException("Permutation length " + newOrder.length + " != size " + n);
+    Node<E>[] nodes = gatherNodes(2 * n);
+    for (int i = 0; i < n; i++) {                // move chosen nodes to the upper half
+      int k = newOrder[i];
+      if (k < 0 || k >= n || nodes[k] == null) {
+        clearScratch(2 * n);
+        throw new IllegalArgumentException("Not a permutation: index " + k + " at " + i);
+      }
+      nodes[n + i] = nodes[k];
+      nodes[k] = null;
+    }
+    try {
+      if (journal != null) log(j -> j.permute(newOrder));
+      relink(nodes, n, n);
+    } finally {
+      clearScratch(2 * n);
+    }
+    if (publishing()) feed.publish(ChangeEvent.permuted(newOrder));
+  }
+
+  /**
+   * Applies a batch of swaps by position, in order, and relinks the list
+   * once at the end. Each pair {i, j} exchanges the nodes at positions i
+   * and j as they stand after the earlier pairs. Runs in O(n + p) time for
+   * p pairs and allocates nothing beyond a reusable buffer.
+   *
+   * @param pairs  the positions to swap, each an array of two indices
+   * @throws IllegalArgumentException if a pair does not hold two indices
+   * @throws IndexOutOfBoundsException if an index is not in [0, size)
+   */
+  public void swapAll(int[][] pairs) {
+    int n = size;
+    for (int[] pair : pairs) {                   // validate before changing anything
+      if (pair.length != 2)
+        throw new IllegalArgumentException("Swap pair must hold two indices");
+      if (pair[0] < 0 || pair[0] >= n || pair[1] < 0 || pair[1] >= n)
+        throw new IndexOutOfBoundsException("Invalid swap: " + pair[0] + ", " + pair[1]);
+    }
+    if (journal != null)
+      for (int[] pair : pairs) log(j -> j.swap(pair[0], pair[1]));
+    Node<E>[] nodes = gatherNodes(n);
+    for (int[] pair : pairs) {
+      Node<E> temp = nodes[pair[0]];
+      nodes[pair[0]] = nodes[pair[1]];
+      nodes[pair[1]] = temp;
+    }
+    relink(nodes, 0, n);
+    clearScratch(n);
+    if (publishing()) {
+      for (int[] pair : pairs) feed.append(ChangeEvent.swapped(pair[0], pair[1]));
+      feed.endOperation();
+    }
+  }
+
+  /**
+   * Copies references to all nodes, in list order, into the start of the
+   * scratch buffer, first growing it to at least the given length.
+   */
+  private Node<E>[] gatherNodes(int length) {
+    if (scratch == null || scratch.length < length) {
+      @SuppressWarnings({"unchecked", "rawtypes"})
+      Node<E>[] grown = (Node<E>[]) new Node[Math.max(length, 16)];
+      scratch = grown;
+    }
+    Node<E> walk = header.getNext();
+    for (int i = 0; i < size; i++) {
+      scratch[i] = walk;
+      walk = walk.getNext();
+    }
+    return scratch;
+  }
+
+  /**
+   * Links nodes[from..from+n) between the sentinels, in array order.
+   */
+  private void relink(Node<E>[] nodes, int from, int n) {
+    Node<E> prev = header;
+    for (int i = from; i < from + n; i++) {
+      prev.setNext(nodes[i]);
+      nodes[i].setPrev(prev);
+      prev = nodes[i];
+    }
+    prev.setNext(trailer);
+    trailer.setPrev(prev);
+  }
+
+  /** Drops the node references held in the scratch buffer. */
+  private void clearScratch(int length) {
+    Arrays.fill(scratch, 0, length, null);
+  }
+
+  /** Reallocates the nodes in list order, undoing the scatter left by relinking. */
+  public void compact() { reallocate(); }
+
+  /**
+   * Replaces every node, sentinels included, with a fresh copy in
+   * traversal order. Nodes keeping an access count are copied with it, and
+   * every node becomes one that keeps a count if the organization is COUNT.
+   */
+  private void reallocate() {
+    Node<E> oldHeader = header;
+    Node<E> oldTrailer = trailer;
+    header = new Node<>(null, null, null);
+    Node<E> last = header;
+    for (Node<E> walk = oldHeader.getNext(); walk != oldTrailer; walk = walk.getNext()) {
+      Node<E> copy = organization == Organization.COUNT || walk instanceof CountingNode
+          ? new CountingNode<>(walk.getElement(), last, null, hits(walk))
+          : new Node<>(walk.getElement(), last, null);
+      last.setNext(copy);
+      last = copy;
+    }
+    trailer = new Node<>(null, last, null);
+    last.setNext(trailer);
+  }
+
+  /**
+   * Estimates the heap retained by this list. The links include the
+   * scratch buffer kept for applyPermutation and swapAll.
+   * @return the estimated bytes of links, elements and sentinels
+   */
+  public Footprint footprint() {
+    long node = Footprint.objectSize(3, 0);     // element, prev and next
+    long countingNode = Footprint.objectSize(3, 4);   // and hits
+    Footprint.Elements elements = new Footprint.Elements();
+    long links = 0;
+    for (Node<E> walk = header.getNext(); walk != trailer; walk = walk.getNext()) {
+      elements.add(walk.getElement());
+      links += walk instanceof CountingNode ? countingNode : node;
+    }
+    if (scratch != null) links += Footprint.arraySize(Footprint.REFERENCE, scratch.length);
+    return new Footprint(links, elements.bytes(), 2 * node);
+  }
+
+  /**
+   * Returns the feed of this list's mutations, creating it on first use.
+   * Events are only created while the feed has subscribers.
+   * @return the change feed of this list
+   */
+  public ChangeFeed<E> changes() {
+    if (feed == null) feed = new ChangeFeed<>();
+    return feed;
+  }
+
+  /**
+   * Tests whether mutations should be published to the change feed.
+   */
+  private boolean publishing() { return feed != null && feed.isActive(); }
+
+  /**
+   * Rebuilds this list from the given log and then records every later
+   * mutation in it before the mutation is made. Records left incomplete
+   * by a crash are discarded. Journaling swapTwoNodes (or publishing it to
+   * the change feed) costs a walk to find the positions of the two nodes.
+   *
+   * @param log  the log to replay and then append to
+   * @throws IOException if the log cannot be read or is corrupt before its end
+   * @throws IllegalStateException if the list is not empty
+   */
+  public void attachJournal(OperationLog<E> log) throws IOException {
+    if (!isEmpty()) throw new IllegalStateException("List must be empty to replay a journal");
+    log.replay(new OperationLog.Target<E>() {
+      public void addFirst(E e) { DoublyLinkedList.this.addFirst(e); }
+      public void addLast(E e) { DoublyLinkedList.this.addLast(e); }
+      public E removeFirst() { return DoublyLinkedList.this.removeFirst(); }
+      public E removeLast() { return DoublyLinkedList.this.removeLast(); }
+      public void swap(int i, int j) { swapAll(new int[][] {{i, j}}); }
+      public void move(int from, int to) {
+        DoublyLinkedList.this.move(nodeAt(from), from, nodeAt(to), to);
+      }
+      public void permute(int[] newOrder) { applyPermutation(newOrder); }
+      public void rotate() throws IOException { throw OperationLog.unsupported("rotate"); }
+      public void removeEvery(int k) throws IOException {
+        throw OperationLog.unsupported("removeEvery");
+      }
+    });
+    journal = log;
+  }
+
+  /**
+   * Replaces the attached journal with a single record of the current
+   * contents of the list.
+   * @throws IOException if the checkpoint cannot be written
+   * @throws IllegalStateException if no journal is attached
+   */
+  public void checkpoint() throws IOException {
+    if (journal == null) throw new IllegalStateException("No journal attached");
+    List<E> contents = new ArrayList<>(size);
+    for (Node<E> walk = header.getNext(); walk != trailer; walk = walk.getNext())
+      contents.add(walk.getElement());
+    journal.checkpoint(contents);
+  }
+
+  /** A single write to the journal. */
+  private interface JournalWrite<E> {
+    void write(OperationLog<E> journal) throws IOException;
+  }
+
+  /**
+   * Performs a write to the journal, rethrowing any I/O error unchecked
+   * so that the update methods keep their signatures.
+   */
+  private void log(JournalWrite<E> write) {
+    try {
+      write.write(journal);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Returns the position of the given node, by walking from the header. */
+  private int indexOf(Node<E> node) {
+    int index = 0;
+    for (Node<E> walk = header.getNext(); walk != node; walk = walk.getNext())
+      index++;
+    return index;
+  }
+
   /* YuenKwanLI (Xavier) 301228849 */
 //main method
   public static void main(String[] args)
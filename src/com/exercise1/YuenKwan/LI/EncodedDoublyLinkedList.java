@@ -0,0 +1,238 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.exercise1.YuenKwan.LI;
+
+import com.footprint.YuenKwan.LI.Footprint;
+import com.symbols.YuenKwan.LI.SymbolTable;
+
+/**
+ * A doubly linked list of strings that stores each element as an int code
+ * into a SymbolTable, for lists holding many occurrences of few distinct
+ * strings. All occurrences of a string share the table's single instance,
+ * and searches compare codes instead of calling equals. The nodes are no
+ * smaller: with compressed references a code takes the same four bytes as
+ * a reference, so a node is 24 bytes either way, and the saving is in the
+ * strings. Lists sharing a table can be read concurrently with interning
+ * by other lists, but a list itself is not thread-safe.
+ */
+public class EncodedDoublyLinkedList {
+  //---------------- nested Node class ----------------
+  /**
+   * Node of a doubly linked list, which stores an element code and
+   * references to both the previous and next node in the list.
+   */
+  private static class Node {
+
+    /** The code of the element stored at this node */
+    private int code;
+
+    /** A reference to the preceding node in the list */
+    private Node prev;
+
+    /** A reference to the subsequent node in the list */
+    private Node next;
+
+    /**
+     * Creates a node with the given code and neighbors.
+     *
+     * @param c  the code to be stored
+     * @param p  reference to a node that should precede the new node
+     * @param n  reference to a node that should follow the new node
+     */
+    private Node(int c, Node p, Node n) {
+      code = c;
+      prev = p;
+      next = n;
+    }
+  } //----------- end of nested Node class -----------
+
+  // instance variables of the EncodedDoublyLinkedList
+  /** The table the element codes refer to */
+  private final SymbolTable symbols;
+
+  /** Sentinel node at the beginning of the list */
+  private final Node header;                    // header sentinel
+
+  /** Sentinel node at the end of the list */
+  private final Node trailer;                   // trailer sentinel
+
+  /** Number of elements in the list (not including sentinels) */
+  private int size = 0;                         // number of elements in the list
+
+  /** Constructs a new empty list with its own symbol table. */
+  public EncodedDoublyLinkedList() { this(new SymbolTable()); }
+
+  /**
+   * Constructs a new empty list encoding its elements into the given table.
+   * @param symbols  the (possibly shared) symbol table
+   */
+  public EncodedDoublyLinkedList(SymbolTable symbols) {
+    this.symbols = symbols;
+    header = new Node(-1, null, null);          // create header
+    trailer = new Node(-1, header, null);       // trailer is preceded by header
+    header.next = trailer;                      // header is followed by trailer
+  }
+
+  // public accessor methods
+  /**
+   * Returns the symbol table the element codes refer to.
+   * @return the symbol table
+   */
+  public SymbolTable symbols() { return symbols; }
+
+  /**
+   * Returns the number of elements in the linked list.
+   * @return number of elements in the linked list
+   */
+  public int size() { return size; }
+
+  /**
+   * Tests whether the linked list is empty.
+   * @return true if the linked list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns (but does not remove) the first element of the list.
+   * @return element at the front of the list (or null if empty)
+   */
+  public String first() {
+    if (isEmpty()) return null;
+    return symbols.symbol(header.next.code);    // first element is beyond header
+  }
+
+  /**
+   * Returns (but does not remove) the last element of the list.
+   * @return element at the end of the list (or null if empty)
+   */
+  public String last() {
+    if (isEmpty()) return null;
+    return symbols.symbol(trailer.prev.code);   // last element is before trailer
+  }
+
+  /**
+   * Returns the position of the first occurrence of a string, comparing
+   * codes rather than strings.
+   * @param e  the string to search for
+   * @return its position (or -1 if it does not occur)
+   */
+  public int indexOf(String e) {
+    int code = symbols.code(e);
+    if (code < 0) return -1;                    // never interned, so not in any list
+    int index = 0;
+    for (Node walk = header.next; walk != trailer; walk = walk.next, index++)
+      if (walk.code == code) return index;
+    return -1;
+  }
+
+  /**
+   * Tests whether a string occurs in the list.
+   * @param e  the string to search for
+   * @return true if it occurs, false otherwise
+   */
+  public boolean contains(String e) { return indexOf(e) >= 0; }
+
+  // public update methods
+  /**
+   * Adds an element to the front of the list.
+   * @param e   the new element to add
+   * @throws IllegalArgumentException if e is null
+   */
+  public void addFirst(String e) {
+    addBetween(symbols.intern(e), header, header.next);   // place just after the header
+  }
+
+  /**
+   * Adds an element to the end of the list.
+   * @param e   the new element to add
+   * @throws IllegalArgumentException if e is null
+   */
+  public void addLast(String e) {
+    addBetween(symbols.intern(e), trailer.prev, trailer); // place just before the trailer
+  }
+
+  /**
+   * Removes and returns the first element of the list.
+   * @return the removed element (or null if empty)
+   */
+  public String removeFirst() {
+    if (isEmpty()) return null;                  // nothing to remove
+    return remove(header.next);                  // first element is beyond header
+  }
+
+  /**
+   * Removes and returns the last element of the list.
+   * @return the removed element (or null if empty)
+   */
+  public String removeLast() {
+    if (isEmpty()) return null;                  // nothing to remove
+    return remove(trailer.prev);                 // last element is before trailer
+  }
+
+  /**
+   * Estimates the heap retained by this list. The elements are the
+   * distinct strings the list refers to, which are shared with the symbol
+   * table and any other list using it; the table's own index is not
+   * included.
+   * @return the estimated bytes of links, elements and sentinels
+   */
+  public Footprint footprint() {
+    long node = Footprint.objectSize(2, 4);     // prev, next and code
+    Footprint.Elements elements = new Footprint.Elements();
+    for (Node walk = header.next; walk != trailer; walk = walk.next)
+      elements.add(symbols.symbol(walk.code));
+    return new Footprint(size * node, elements.bytes(), 2 * node);
+  }
+
+  // private update methods
+  /** Links a new node with the given code between two neighboring nodes. */
+  private void addBetween(int code, Node predecessor, Node successor) {
+    Node newest = new Node(code, predecessor, successor);
+    predecessor.next = newest;
+    successor.prev = newest;
+    size++;
+  }
+
+  /** Unlinks the given node and returns its element. */
+  private String remove(Node node) {
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+    size--;
+    return symbols.symbol(node.code);
+  }
+
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (Node walk = header.next; walk != trailer; walk = walk.next) {
+      sb.append(symbols.symbol(walk.code));
+      if (walk.next != trailer)
+        sb.append(", ");
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
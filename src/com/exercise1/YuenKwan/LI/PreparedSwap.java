@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.exercise1.YuenKwan.LI;
+
+/**
+ * A call to swapTwoNodes on a DoublyLinkedList, split in two so that the
+ * swap can be timed on its own from outside this package: prepare walks
+ * to the two nodes, and run only swaps them. Nothing else may change the
+ * list between prepare and run.
+ *
+ * @param <E>  the type of the list elements
+ */
+public class PreparedSwap<E> {
+  /** The list whose nodes are swapped */
+  private final DoublyLinkedList<E> list;
+
+  /** The nodes found by prepare, or null once swapped */
+  private DoublyLinkedList.Node<E> node1 = null, node2 = null;
+
+  /**
+   * Creates a swap of nodes of the given list.
+   * @param list  the list whose nodes are swapped
+   */
+  public PreparedSwap(DoublyLinkedList<E> list) { this.list = list; }
+
+  /**
+   * Finds the nodes at positions i and j.
+   * @param i  position of the first node
+   * @param j  position of the second node
+   * @throws IndexOutOfBoundsException if i or j is not in [0, size)
+   */
+  public void prepare(int i, int j) {
+    node1 = list.nodeAt(i);
+    node2 = list.nodeAt(j);
+  }
+
+  /**
+   * Swaps the nodes found by the last call to prepare. Does nothing if
+   * they have already been swapped.
+   */
+  public void run() {
+    list.swapTwoNodes(node1, node2);
+    node1 = node2 = null;
+  }
+}
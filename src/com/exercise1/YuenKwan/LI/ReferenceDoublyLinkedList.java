@@ -0,0 +1,313 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.exercise1.YuenKwan.LI;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+
+/**
+ * A doubly linked list that holds its elements through weak or soft
+ * references, so that the list does not keep them from being garbage
+ * collected (e.g. a recency list of large cached objects). Each reference
+ * is registered with a ReferenceQueue and knows its node, so once the
+ * collector clears an element its node is unlinked in O(1) time without
+ * searching for it. Pending nodes are unlinked a few at a time by every
+ * update, and all at once by size, isEmpty and prune; none of these
+ * traverse the list. Elements cleared but not yet enqueued by the
+ * collector are still counted until they are reached or enqueued.
+ */
+public class ReferenceDoublyLinkedList<E> {
+  //---------------- nested Strength enum ----------------
+  /** How strongly the list refers to its elements. */
+  public enum Strength {
+    /** Elements are kept only while strongly reachable elsewhere. */
+    WEAK,
+    /** Elements are kept until the collector needs the memory. */
+    SOFT
+  } //----------- end of nested Strength enum -----------
+
+  //---------------- nested Node class ----------------
+  /**
+   * Node of a doubly linked list, which stores a reference to its
+   * element and to both the previous and next node in the list.
+   * An unlinked node has a null prev.
+   */
+  private static class Node<E> {
+    /** The reference to the element stored at this node */
+    private Element<E> element;
+
+    /** A reference to the preceding node in the list */
+    private Node<E> prev;
+
+    /** A reference to the subsequent node in the list */
+    private Node<E> next;
+
+    private Node(Node<E> p, Node<E> n) {
+      prev = p;
+      next = n;
+    }
+
+    /** Returns the element, or null if it has been cleared (or for a sentinel). */
+    private E get() { return element == null ? null : element.get(); }
+  } //----------- end of nested Node class -----------
+
+  //---------------- nested Element classes ----------------
+  /** A reference to an element that knows the node holding it. */
+  private interface Element<E> {
+    E get();
+    void clear();
+    Node<E> node();
+  }
+
+  private static final class WeakElement<E> extends WeakReference<E> implements Element<E> {
+    private final Node<E> node;
+
+    private WeakElement(E e, ReferenceQueue<? super E> queue, Node<E> node) {
+      super(e, queue);
+      this.node = node;
+    }
+
+    public Node<E> node() { return node; }
+  }
+
+  private static final class SoftElement<E> extends SoftReference<E> implements Element<E> {
+    private final Node<E> node;
+
+    private SoftElement(E e, ReferenceQueue<? super E> queue, Node<E> node) {
+      super(e, queue);
+      this.node = node;
+    }
+
+    public Node<E> node() { return node; }
+  } //----------- end of nested Element classes -----------
+
+  /** Number of pending nodes an update unlinks on its way */
+  private static final int PIGGYBACK = 8;
+
+  // instance variables of the ReferenceDoublyLinkedList
+  /** How strongly elements are held */
+  private final Strength strength;
+
+  /** Queue to which the collector appends the references it clears */
+  private final ReferenceQueue<E> queue = new ReferenceQueue<>();
+
+  /** Sentinel node at the beginning of the list */
+  private final Node<E> header;                 // header sentinel
+
+  /** Sentinel node at the end of the list */
+  private final Node<E> trailer;                // trailer sentinel
+
+  /** Number of linked nodes (not including sentinels) */
+  private int size = 0;                         // number of elements in the list
+
+  /**
+   * Constructs a new empty list.
+   * @param strength  whether elements are held weakly or softly
+   */
+  public ReferenceDoublyLinkedList(Strength strength) {
+    this.strength = strength;
+    header = new Node<>(null, null);            // create header
+    trailer = new Node<>(header, null);         // trailer is preceded by header
+    header.next = trailer;                      // header is followed by trailer
+  }
+
+  // public accessor methods
+  /**
+   * Returns how strongly the list holds its elements.
+   * @return the reference strength
+   */
+  public Strength strength() { return strength; }
+
+  /**
+   * Returns the number of elements in the list, after unlinking all
+   * nodes whose elements the collector has cleared and enqueued.
+   * @return number of elements in the list
+   */
+  public int size() {
+    prune();
+    return size;
+  }
+
+  /**
+   * Tests whether the list is empty.
+   * @return true if the list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size() == 0; }
+
+  /**
+   * Returns (but does not remove) the first live element of the list,
+   * unlinking any cleared nodes in front of it.
+   * @return element at the front of the list (or null if empty)
+   */
+  public E first() {
+    for (Node<E> walk = header.next; walk != trailer; walk = header.next) {
+      E e = walk.get();
+      if (e != null) return e;
+      unlink(walk);
+    }
+    return null;
+  }
+
+  /**
+   * Returns (but does not remove) the last live element of the list,
+   * unlinking any cleared nodes behind it.
+   * @return element at the end of the list (or null if empty)
+   */
+  public E last() {
+    for (Node<E> walk = trailer.prev; walk != header; walk = trailer.prev) {
+      E e = walk.get();
+      if (e != null) return e;
+      unlink(walk);
+    }
+    return null;
+  }
+
+  // public update methods
+  /**
+   * Adds an element to the front of the list.
+   * @param e   the new element to add
+   * @throws IllegalArgumentException if e is null
+   */
+  public void addFirst(E e) {
+    addBetween(e, header, header.next);         // place just after the header
+  }
+
+  /**
+   * Adds an element to the end of the list.
+   * @param e   the new element to add
+   * @throws IllegalArgumentException if e is null
+   */
+  public void addLast(E e) {
+    addBetween(e, trailer.prev, trailer);       // place just before the trailer
+  }
+
+  /**
+   * Removes and returns the first live element of the list, discarding
+   * any cleared nodes in front of it.
+   * @return the removed element (or null if empty)
+   */
+  public E removeFirst() {
+    prune(PIGGYBACK);
+    while (header.next != trailer) {
+      E e = remove(header.next);                // first element is beyond header
+      if (e != null) return e;
+    }
+    return null;
+  }
+
+  /**
+   * Removes and returns the last live element of the list, discarding
+   * any cleared nodes behind it.
+   * @return the removed element (or null if empty)
+   */
+  public E removeLast() {
+    prune(PIGGYBACK);
+    while (trailer.prev != header) {
+      E e = remove(trailer.prev);               // last element is before trailer
+      if (e != null) return e;
+    }
+    return null;
+  }
+
+  /**
+   * Unlinks every node whose element the collector has cleared and
+   * enqueued, in O(1) time each.
+   * @return the number of nodes unlinked
+   */
+  public int prune() { return prune(Integer.MAX_VALUE); }
+
+  /**
+   * Unlinks at most max nodes whose elements the collector has cleared
+   * and enqueued, in O(1) time each.
+   * @param max  the most nodes to unlink
+   * @return the number of nodes unlinked
+   */
+  @SuppressWarnings("unchecked")
+  public int prune(int max) {
+    int count = 0;
+    Reference<? extends E> cleared;
+    while (count < max && (cleared = queue.poll()) != null) {
+      Node<E> node = ((Element<E>) cleared).node();
+      if (node.prev != null) {                  // not already removed or passed over
+        unlink(node);
+        count++;
+      }
+    }
+    return count;
+  }
+
+  // private update methods
+  /**
+   * Adds an element to the linked list in between the given nodes,
+   * first unlinking a few cleared nodes. The given predecessor and
+   * successor should be neighboring each other prior to the call.
+   */
+  private void addBetween(E e, Node<E> predecessor, Node<E> successor) {
+    if (e == null) throw new IllegalArgumentException("Null elements cannot be referenced");
+    Node<E> newest = new Node<>(predecessor, successor);
+    newest.element = strength == Strength.WEAK ? new WeakElement<>(e, queue, newest)
+                                               : new SoftElement<>(e, queue, newest);
+    predecessor.next = newest;
+    successor.prev = newest;
+    size++;
+    prune(PIGGYBACK);                           // after linking, so neighbors stay valid
+  }
+
+  /**
+   * Removes the given node from the list and returns its element, which
+   * is null if it had been cleared. The reference is cleared so that it
+   * is not enqueued later.
+   */
+  private E remove(Node<E> node) {
+    E e = node.get();
+    node.element.clear();
+    unlink(node);
+    return e;
+  }
+
+  /** Unlinks a node, marking it as unlinked. */
+  private void unlink(Node<E> node) {
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+    node.prev = node.next = null;
+    size--;
+  }
+
+  /**
+   * Produces a string representation of the live elements of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (Node<E> walk = header.next; walk != trailer; walk = walk.next) {
+      E e = walk.get();
+      if (e == null) continue;
+      if (sb.length() > 1) sb.append(", ");
+      sb.append(e);
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
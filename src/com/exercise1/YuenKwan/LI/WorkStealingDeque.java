@@ -0,0 +1,152 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.exercise1.YuenKwan.LI;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A work-stealing task queue made of one DoublyLinkedList per worker.
+ * Each worker pushes and pops tasks at the end of its own shard (last in,
+ * first out, which keeps recently created work hot in its cache); a
+ * worker whose shard is empty steals from the front of another shard
+ * (first in, first out, which takes the oldest and usually largest
+ * task). This follows the access pattern of a Chase-Lev deque, with a
+ * lock per shard instead of a lock-free array: owners contend only with
+ * the occasional thief of their own shard, never with each other.
+ *
+ * size() sums per-shard counters without locking, so it is cheap but
+ * only approximate while tasks are being pushed and popped.
+ *
+ * @param <E>  the type of the tasks
+ */
+public class WorkStealingDeque<E> {
+
+  //---------------- nested Shard class ----------------
+  /** The deque of one worker, guarded by its own monitor. */
+  private static final class Shard<E> {
+
+    /** The tasks of the worker, oldest first */
+    private final DoublyLinkedList<E> tasks = new DoublyLinkedList<>();
+
+    /** Copy of tasks.size(), readable without the lock */
+    private volatile int size = 0;
+  } //----------- end of nested Shard class -----------
+
+  // instance variables of the WorkStealingDeque
+  /** One shard per worker */
+  private final Shard<E>[] shards;
+
+  /**
+   * Constructs an empty queue for the given number of workers.
+   * @param workers  the number of workers (must be positive)
+   * @throws IllegalArgumentException if workers is not positive
+   */
+  public WorkStealingDeque(int workers) {
+    if (workers <= 0) throw new IllegalArgumentException("Workers must be positive: " + workers);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Shard<E>[] created = (Shard<E>[]) new Shard[workers];
+    shards = created;
+    for (int w = 0; w < workers; w++)
+      shards[w] = new Shard<>();
+  }
+
+  // access methods
+  /**
+   * Returns the number of workers.
+   * @return the number of shards
+   */
+  public int workers() { return shards.length; }
+
+  /**
+   * Returns the number of queued tasks. The count is read without
+   * locking, so it may be out of date while other threads are active.
+   * @return the approximate number of tasks
+   */
+  public int size() {
+    int total = 0;
+    for (Shard<E> shard : shards) total += shard.size;
+    return total;
+  }
+
+  /**
+   * Tests whether the queue appears empty; see size().
+   * @return true if no tasks appear to be queued, false otherwise
+   */
+  public boolean isEmpty() { return size() == 0; }
+
+  // update methods
+  /**
+   * Adds a task at the end of the given worker's shard.
+   * @param worker  the index of the calling worker
+   * @param task    the task to add
+   */
+  public void push(int worker, E task) {
+    Shard<E> shard = shards[worker];
+    synchronized (shard) {
+      shard.tasks.addLast(task);
+      shard.size = shard.tasks.size();
+    }
+  }
+
+  /**
+   * Removes and returns the newest task of the given worker's shard or,
+   * if it is empty, steals a task from another worker.
+   * @param worker  the index of the calling worker
+   * @return a task (or null if every shard was found empty)
+   */
+  public E pop(int worker) {
+    Shard<E> shard = shards[worker];
+    if (shard.size > 0) {
+      synchronized (shard) {
+        E task = shard.tasks.removeLast();
+        shard.size = shard.tasks.size();
+        if (task != null) return task;
+      }
+    }
+    return steal(worker);
+  }
+
+  /**
+   * Removes and returns the oldest task of some other worker's shard,
+   * visiting the shards once each from a random starting point. Shards
+   * that appear empty are skipped without locking.
+   * @param thief  the index of the calling worker
+   * @return a stolen task (or null if every other shard was found empty)
+   */
+  public E steal(int thief) {
+    int n = shards.length;
+    int start = n > 1 ? ThreadLocalRandom.current().nextInt(n) : 0;
+    for (int j = 0; j < n; j++) {
+      int victim = (start + j) % n;
+      if (victim == thief) continue;
+      Shard<E> shard = shards[victim];
+      if (shard.size == 0) continue;
+      synchronized (shard) {
+        E task = shard.tasks.removeFirst();
+        shard.size = shard.tasks.size();
+        if (task != null) return task;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.exercise1.YuenKwan.LI;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import com.footprint.YuenKwan.LI.Footprint;
+
+/**
+ * A doubly linked list stored in a slab of slots rather than in node
+ * objects. Slot i holds an element in elements[i] and a single int link
+ * in links[i], which is the XOR of the indices of its two neighbors: a
+ * traversal that knows where it came from recovers where to go next.
+ * Slots 0 and 1 are the sentinels, and the list is closed into a circle
+ * through them, so either sentinel can start a traversal. Because the
+ * links do not say which neighbor is "previous", the list is reversed in
+ * O(1) time by exchanging the roles of the two sentinels.
+ *
+ * Compared with DoublyLinkedList, each element costs an int link and an
+ * element reference (8 bytes with compressed references, plus unused
+ * capacity) instead of a 24-byte node. Freed slots are reused, and
+ * compact() renumbers the slots in list order.
+ */
+public class XorDoublyLinkedList<E> {
+  /** Initial number of slots, including the two sentinels */
+  private static final int INITIAL_CAPACITY = 16;
+
+  /** End of the chain of free slots */
+  private static final int NONE = -1;
+
+  // instance variables of the XorDoublyLinkedList
+  /** Elements by slot (null for sentinels and free slots) */
+  private Object[] elements = new Object[INITIAL_CAPACITY];
+
+  /** XOR of each slot's neighbors, or the next free slot for a free slot */
+  private int[] links = new int[INITIAL_CAPACITY];
+
+  /** Slot of the sentinel before the first element */
+  private int header = 0;                       // header sentinel
+
+  /** Slot of the sentinel after the last element */
+  private int trailer = 1;                      // trailer sentinel
+
+  /** Number of slots ever used, including the sentinels */
+  private int used = 2;
+
+  /** First free slot below used (or NONE) */
+  private int free = NONE;
+
+  /** Number of elements in the list (not including sentinels) */
+  private int size = 0;                         // number of elements in the list
+
+  /** Constructs a new empty list. */
+  public XorDoublyLinkedList() {
+    links[header] = trailer ^ trailer;          // the sentinels neighbor each other on both sides
+    links[trailer] = header ^ header;
+  }
+
+  // public accessor methods
+  /**
+   * Returns the number of elements in the linked list.
+   * @return number of elements in the linked list
+   */
+  public int size() { return size; }
+
+  /**
+   * Tests whether the linked list is empty.
+   * @return true if the linked list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns (but does not remove) the first element of the list.
+   * @return element at the front of the list (or null if empty)
+   */
+  public E first() {
+    if (isEmpty()) return null;
+    return element(links[header] ^ trailer);    // the header's other neighbor
+  }
+
+  /**
+   * Returns (but does not remove) the last element of the list.
+   * @return element at the end of the list (or null if empty)
+   */
+  public E last() {
+    if (isEmpty()) return null;
+    return element(links[trailer] ^ header);    // the trailer's other neighbor
+  }
+
+  /**
+   * Returns the first element satisfying the predicate, searching from
+   * the header.
+   * @param p  the predicate to test elements with
+   * @return the element found (or null if none satisfies the predicate)
+   */
+  public E find(Predicate<? super E> p) { return search(p, header, trailer); }
+
+  /**
+   * Returns the last element satisfying the predicate, searching from
+   * the trailer.
+   * @param p  the predicate to test elements with
+   * @return the element found (or null if none satisfies the predicate)
+   */
+  public E findLast(Predicate<? super E> p) { return search(p, trailer, header); }
+
+  // public update methods
+  /**
+   * Adds an element to the front of the list.
+   * @param e   the new element to add
+   */
+  public void addFirst(E e) { addAfter(e, header, trailer); }
+
+  /**
+   * Adds an element to the end of the list.
+   * @param e   the new element to add
+   */
+  public void addLast(E e) { addAfter(e, trailer, header); }
+
+  /**
+   * Removes and returns the first element of the list.
+   * @return the removed element (or null if empty)
+   */
+  public E removeFirst() {
+    if (isEmpty()) return null;                 // nothing to remove
+    return removeAfter(header, trailer);
+  }
+
+  /**
+   * Removes and returns the last element of the list.
+   * @return the removed element (or null if empty)
+   */
+  public E removeLast() {
+    if (isEmpty()) return null;                 // nothing to remove
+    return removeAfter(trailer, header);
+  }
+
+  /**
+   * Reverses the order of the list in O(1) time, by exchanging the
+   * roles of the header and trailer sentinels.
+   */
+  public void reverse() {
+    int s = header;
+    header = trailer;
+    trailer = s;
+  }
+
+  /**
+   * Renumbers the slots in list order and trims the slab to the list's
+   * size, so that a traversal reads both arrays sequentially.
+   */
+  public void compact() {
+    int capacity = Math.max(INITIAL_CAPACITY, size + 2);
+    Object[] packed = new Object[capacity];
+    int[] packedLinks = new int[capacity];
+    int prev = header, walk = links[header] ^ trailer;
+    for (int j = 2; walk != trailer; j++) {     // elements move to slots 2 .. size + 1
+      packed[j] = elements[walk];
+      int next = links[walk] ^ prev;
+      prev = walk;
+      walk = next;
+    }
+    // slot j neighbors j - 1 and j + 1, except at the ends, which neighbor the sentinels
+    int last = size + 1;
+    for (int j = 2; j <= last; j++)
+      packedLinks[j] = (j == 2 ? 0 : j - 1) ^ (j == last ? 1 : j + 1);
+    packedLinks[0] = 1 ^ (size == 0 ? 1 : 2);   // header: trailer and the first slot
+    packedLinks[1] = 0 ^ (size == 0 ? 0 : last);   // trailer: header and the last slot
+    elements = packed;
+    links = packedLinks;
+    header = 0;
+    trailer = 1;
+    used = size + 2;
+    free = NONE;
+  }
+
+  /**
+   * Estimates the heap retained by this list. The links are the int array
+   * and the slots the element array, each including unused capacity and
+   * less the sentinels' two entries.
+   * @return the estimated bytes of links, slots, elements and sentinels
+   */
+  public Footprint footprint() {
+    long linkBytes = Footprint.arraySize(4, links.length) - 2L * 4;
+    long slotBytes = Footprint.arraySize(Footprint.REFERENCE, elements.length) - 2L * Footprint.REFERENCE;
+    long sentinels = 2L * (Footprint.REFERENCE + 4);
+    Footprint.Elements distinct = new Footprint.Elements();
+    int prev = header, walk = links[header] ^ trailer;
+    while (walk != trailer) {
+      distinct.add(elements[walk]);
+      int next = links[walk] ^ prev;
+      prev = walk;
+      walk = next;
+    }
+    return new Footprint(linkBytes, slotBytes, distinct.bytes(), sentinels);
+  }
+
+  // private utilities
+  @SuppressWarnings("unchecked")
+  private E element(int slot) { return (E) elements[slot]; }
+
+  /**
+   * Searches from sentinel start towards sentinel end for an element
+   * satisfying the predicate.
+   */
+  private E search(Predicate<? super E> p, int start, int end) {
+    int prev = start, walk = links[start] ^ end;
+    while (walk != end) {
+      E e = element(walk);
+      if (p.test(e)) return e;
+      int next = links[walk] ^ prev;
+      prev = walk;
+      walk = next;
+    }
+    return null;
+  }
+
+  /**
+   * Adds an element just inside the given sentinel; other is the
+   * opposite sentinel, its neighbor around the circle.
+   */
+  private void addAfter(E e, int sentinel, int other) {
+    int slot = allocate();
+    int neighbor = links[sentinel] ^ other;     // current first element (or other)
+    elements[slot] = e;
+    links[slot] = sentinel ^ neighbor;
+    links[sentinel] = other ^ slot;
+    links[neighbor] ^= sentinel ^ slot;         // neighbor now borders slot instead of sentinel
+    size++;
+  }
+
+  /**
+   * Removes the element just inside the given sentinel; other is the
+   * opposite sentinel, its neighbor around the circle.
+   */
+  private E removeAfter(int sentinel, int other) {
+    int slot = links[sentinel] ^ other;
+    int neighbor = links[slot] ^ sentinel;
+    links[sentinel] = other ^ neighbor;
+    links[neighbor] ^= slot ^ sentinel;         // neighbor now borders sentinel instead of slot
+    E e = element(slot);
+    elements[slot] = null;                      // help garbage collection
+    links[slot] = free;
+    free = slot;
+    size--;
+    return e;
+  }
+
+  /** Returns a free slot, growing the slab if none is left. */
+  private int allocate() {
+    if (free != NONE) {
+      int slot = free;
+      free = links[slot];
+      return slot;
+    }
+    if (used == elements.length) {
+      elements = Arrays.copyOf(elements, 2 * used);
+      links = Arrays.copyOf(links, 2 * used);
+    }
+    return used++;
+  }
+
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    int prev = header, walk = links[header] ^ trailer;
+    while (walk != trailer) {
+      sb.append(elements[walk]);
+      int next = links[walk] ^ prev;
+      prev = walk;
+      walk = next;
+      if (walk != trailer)
+        sb.append(", ");
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
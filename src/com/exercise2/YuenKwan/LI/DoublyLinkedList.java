@@ -22,6 +22,20 @@
  */
 package com.exercise2.YuenKwan.LI;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.changefeed.YuenKwan.LI.ChangeEvent;
+import com.changefeed.YuenKwan.LI.ChangeFeed;
+import com.footprint.YuenKwan.LI.Footprint;
+import com.journal.YuenKwan.LI.OperationLog;
+
 /**
  * A basic doubly linked list implementation.
  *
@@ -104,6 +118,12 @@ public class DoublyLinkedList<E> {
   /** Number of elements in the list (not including sentinels) */
   private int size = 0;                      // number of elements in the list
 
+  /** Write-ahead log recording each mutation (null if none) */
+  private OperationLog<E> journal = null;     // optional journal
+
+  /** Feed publishing each mutation (null until requested) */
+  private ChangeFeed<E> feed = null;          // optional change feed
+
   /** Constructs a new empty list. */
   public DoublyLinkedList() {
     header = new Node<>(null, null, null);      // create header
@@ -148,7 +168,9 @@ public class DoublyLinkedList<E> {
    * @param e   the new element to add
    */
   public void addFirst(E e) {
+    if (journal != null) log(j -> j.addFirst(e));
     addBetween(e, header, header.getNext());    // place just after the header
+    if (publishing()) feed.publish(ChangeEvent.insertedFirst(e));
   }
 
   /**
@@ -156,7 +178,9 @@ public class DoublyLinkedList<E> {
    * @param e   the new element to add
    */
   public void addLast(E e) {
+    if (journal != null) log(j -> j.addLast(e));
     addBetween(e, trailer.getPrev(), trailer);  // place just before the trailer
+    if (publishing()) feed.publish(ChangeEvent.insertedLast(e));
   }
 
   /**
@@ -165,7 +189,10 @@ public class DoublyLinkedList<E> {
    */
   public E removeFirst() {
     if (isEmpty()) return null;                  // nothing to remove
-    return remove(header.getNext());             // first element is beyond header
+    if (journal != null) log(OperationLog::removeFirst);
+    E removed = remove(header.getNext());        // first element is beyond header
+    if (publishing()) feed.publish(ChangeEvent.removedFirst(removed));
+    return removed;
   }
 
   /**
@@ -174,10 +201,136 @@ public class DoublyLinkedList<E> {
    */
   public E removeLast() {
     if (isEmpty()) return null;                  // nothing to remove
-    return remove(trailer.getPrev());            // last element is before trailer
+    if (journal != null) log(OperationLog::removeLast);
+    E removed = remove(trailer.getPrev());       // last element is before trailer
+    if (publishing()) feed.publish(ChangeEvent.removedLast(removed));
+    return removed;
+  }
+
+  /** Adds the elements of an array, in order, to the front of the list. */
+  public void addAllFirst(E[] elements) { linkAll(Arrays.asList(elements).iterator(), true); }
+
+  /** Adds the given elements, in iteration order, to the front of the list. */
+  public void addAllFirst(Iterable<? extends E> elements) { linkAll(elements.iterator(), true); }
+
+  /** Adds the elements of another list (which may be this one) to the front of this list. */
+  public void addAllFirst(DoublyLinkedList<? extends E> other) { linkAll(other.elements(), true); }
+
+  /** Adds the elements of an array, in order, to the end of the list. */
+  public void addAllLast(E[] elements) { linkAll(Arrays.asList(elements).iterator(), false); }
+
+  /** Adds the given elements, in iteration order, to the end of the list. */
+  public void addAllLast(Iterable<? extends E> elements) { linkAll(elements.iterator(), false); }
+
+  /** Adds the elements of another list (which may be this one) to the end of this list. */
+  public void addAllLast(DoublyLinkedList<? extends E> other) { linkAll(other.elements(), false); }
+
+  /**
+   * Removes the first n elements of the list (or all of them, if there
+   * are fewer), unlinking them from the header as one run.
+   * @param n  the number of elements to remove
+   * @return the number of elements removed
+   * @throws IllegalArgumentException if n is negative
+   */
+  public int removeFirst(int n) {
+    if (n < 0) throw new IllegalArgumentException("Negative count: " + n);
+    return unlinkFirst(Math.min(n, size), null);
+  }
+
+  /**
+   * Removes up to max elements from the front of the list and adds them,
+   * in order, to the given collection. The elements are added before any
+   * is removed, so if the collection rejects one the list is unchanged.
+   * @param c    the collection to add the elements to
+   * @param max  the most elements to move
+   * @return the number of elements moved
+   * @throws IllegalArgumentException if max is negative
+   */
+  public int drainTo(Collection<? super E> c, int max) {
+    if (max < 0) throw new IllegalArgumentException("Negative count: " + max);
+    return unlinkFirst(Math.min(max, size), c);
   }
 
   // private update methods
+  /**
+   * Backs every addAllFirst and addAllLast overload. The new nodes are
+   * chained together privately first and then linked after the header (or
+   * before the trailer) in one step, updating the size once. As nothing is
+   * linked while the elements are read, they may come from this list.
+   */
+  private void linkAll(Iterator<? extends E> elements, boolean atFront) {
+    List<E> added = journal != null || publishing() ? new ArrayList<>() : null;
+    Node<E> first = null;
+    Node<E> last = null;
+    int count = 0;
+    while (elements.hasNext()) {
+      E e = elements.next();
+      Node<E> newest = new Node<>(e, last, null);
+      if (last == null) first = newest;
+      else last.setNext(newest);
+      last = newest;
+      count++;
+      if (added != null) added.add(e);
+    }
+    if (count == 0) return;
+    if (journal != null) log(atFront ? j -> j.prependAll(added) : j -> j.appendAll(added));
+    Node<E> predecessor = atFront ? header : trailer.getPrev();
+    Node<E> successor = predecessor.getNext();
+    first.setPrev(predecessor);
+    last.setNext(successor);
+    predecessor.setNext(first);
+    successor.setPrev(last);
+    size += count;
+    if (added != null && publishing()) {
+      if (atFront)
+        for (int j = count - 1; j >= 0; j--) feed.append(ChangeEvent.insertedFirst(added.get(j)));
+      else
+        for (E e : added) feed.append(ChangeEvent.insertedLast(e));
+      feed.endOperation();
+    }
+  }
+
+  /**
+   * Unlinks the first count nodes from the header as one run, first
+   * adding their elements in order to dest (if not null).
+   */
+  private int unlinkFirst(int count, Collection<? super E> dest) {
+    if (count == 0) return 0;
+    Node<E> last = header;
+    for (int j = 0; j < count; j++) {
+      last = last.getNext();
+      if (dest != null) dest.add(last.getElement());
+    }
+    if (journal != null) log(j -> j.removeFirst(count));
+    Node<E> first = header.getNext();
+    Node<E> successor = last.getNext();
+    header.setNext(successor);
+    successor.setPrev(header);
+    size -= count;
+    if (publishing()) {
+      for (Node<E> walk = first; walk != successor; walk = walk.getNext())
+        feed.append(ChangeEvent.removedFirst(walk.getElement()));
+      feed.endOperation();
+    }
+    return count;
+  }
+
+  /** Returns an iterator over the elements, from first to last. */
+  private Iterator<E> elements() {
+    return new Iterator<E>() {
+      private Node<E> walk = header.getNext();
+
+      public boolean hasNext() { return walk != trailer; }
+
+      public E next() {
+        if (walk == trailer) throw new NoSuchElementException();
+        E e = walk.getElement();
+        walk = walk.getNext();
+        return e;
+      }
+    };
+  }
+
   /**
    * Adds an element to the linked list in between the given nodes.
    * The given predecessor and successor should be neighboring each
@@ -233,23 +386,117 @@ public class DoublyLinkedList<E> {
   public void concatenate(DoublyLinkedList<E> l1, DoublyLinkedList<E> l2) {
     Node<E> currentNode;
 
-    // Copy elements from L1 to L
+    // Record the whole concatenation as one journal entry and one event
+    if (journal != null || publishing()) {
+      List<E> appended = new ArrayList<>(l1.size + l2.size);
+      for (currentNode = l1.header.getNext(); currentNode != l1.trailer; currentNode = currentNode.getNext())
+        appended.add(currentNode.getElement());
+      for (currentNode = l2.header.getNext(); currentNode != l2.trailer; currentNode = currentNode.getNext())
+        appended.add(currentNode.getElement());
+      if (journal != null) log(j -> j.appendAll(appended));
+      if (publishing()) feed.publish(ChangeEvent.concatenated(appended));
+    }
+
+    // Copy elements from L1 to L (addBetween updates the size of L)
     currentNode = l1.header.getNext();
     while (currentNode != l1.trailer) {
-      addLast(currentNode.getElement());
+      addBetween(currentNode.getElement(), trailer.getPrev(), trailer);
       currentNode = currentNode.getNext();
     }
 
     // Copy elements from L2 to L
     currentNode = l2.header.getNext();
     while (currentNode != l2.trailer) {
-      addLast(currentNode.getElement());
+      addBetween(currentNode.getElement(), trailer.getPrev(), trailer);
       currentNode = currentNode.getNext();
     }
+  }
+
+  /**
+   * Estimates the heap retained by this list.
+   * @return the estimated bytes of links, elements and sentinels
+   */
+  public Footprint footprint() {
+    long node = Footprint.objectSize(3, 0);     // element, prev and next
+    Footprint.Elements elements = new Footprint.Elements();
+    for (Node<E> walk = header.getNext(); walk != trailer; walk = walk.getNext())
+      elements.add(walk.getElement());
+    return new Footprint(size * node, elements.bytes(), 2 * node);
+  }
+
+  /**
+   * Returns the feed of this list's mutations, creating it on first use.
+   * Events are only created while the feed has subscribers.
+   * @return the change feed of this list
+   */
+  public ChangeFeed<E> changes() {
+    if (feed == null) feed = new ChangeFeed<>();
+    return feed;
+  }
+
+  /**
+   * Tests whether mutations should be published to the change feed.
+   */
+  private boolean publishing() { return feed != null && feed.isActive(); }
+
+  /**
+   * Rebuilds this list from the given log and then records every later
+   * mutation in it before the mutation is made. Records left incomplete
+   * by a crash are discarded.
+   *
+   * @param log  the log to replay and then append to
+   * @throws IOException if the log cannot be read or is corrupt before its end
+   * @throws IllegalStateException if the list is not empty
+   */
+  public void attachJournal(OperationLog<E> log) throws IOException {
+    if (!isEmpty()) throw new IllegalStateException("List must be empty to replay a journal");
+    log.replay(new OperationLog.Target<E>() {
+      public void addFirst(E e) { DoublyLinkedList.this.addFirst(e); }
+      public void addLast(E e) { DoublyLinkedList.this.addLast(e); }
+      public E removeFirst() { return DoublyLinkedList.this.removeFirst(); }
+      public E removeLast() { return DoublyLinkedList.this.removeLast(); }
+      public void swap(int i, int j) throws IOException { throw OperationLog.unsupported("swap"); }
+      public void move(int from, int to) throws IOException { throw OperationLog.unsupported("move"); }
+      public void permute(int[] newOrder) throws IOException {
+        throw OperationLog.unsupported("permute");
+      }
+      public void rotate() throws IOException { throw OperationLog.unsupported("rotate"); }
+      public void removeEvery(int k) throws IOException {
+        throw OperationLog.unsupported("removeEvery");
+      }
+    });
+    journal = log;
+  }
 
-    // Update the size of L
-    size += l1.size;
-    size += l2.size;
+  /**
+   * Replaces the attached journal with a single record of the current
+   * contents of the list.
+   * @throws IOException if the checkpoint cannot be written
+   * @throws IllegalStateException if no journal is attached
+   */
+  public void checkpoint() throws IOException {
+    if (journal == null) throw new IllegalStateException("No journal attached");
+    List<E> contents = new ArrayList<>(size);
+    for (Node<E> walk = header.getNext(); walk != trailer; walk = walk.getNext())
+      contents.add(walk.getElement());
+    journal.checkpoint(contents);
+  }
+
+  /** A single write to the journal. */
+  private interface JournalWrite<E> {
+    void write(OperationLog<E> journal) throws IOException;
+  }
+
+  /**
+   * Performs a write to the journal, rethrowing any I/O error unchecked
+   * so that the update methods keep their signatures.
+   */
+  private void log(JournalWrite<E> write) {
+    try {
+      write.write(journal);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
 
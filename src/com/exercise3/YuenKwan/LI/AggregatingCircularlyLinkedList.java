@@ -0,0 +1,228 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.exercise3.YuenKwan.LI;
+
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * A circularly linked list used as a sliding window, which maintains the
+ * aggregate of its elements under an associative operation (a monoid)
+ * as elements enter through addLast and leave through removeFirst.
+ * The aggregate is available in O(1) time and is kept up to date in
+ * O(1) amortized time per update, using the two-stack queue technique:
+ * elements added since the last flip are folded into a single running
+ * value, and on the first removal after a flip every element's suffix
+ * aggregate is computed once, in a single pass.
+ *
+ * Because the operation need only be associative, the same class covers
+ * sums, minima, maxima, and non-commutative combinations such as string
+ * concatenation. A mean is the aggregate of a sum divided by size().
+ *
+ * @param <E>  the type of the list elements
+ * @param <A>  the type of the aggregate
+ */
+public class AggregatingCircularlyLinkedList<E, A> {
+
+  //---------------- nested Monoid interface ----------------
+  /**
+   * An associative binary operation together with its identity element.
+   *
+   * @param <A>  the type of the values combined
+   */
+  public interface Monoid<A> {
+    /**
+     * Returns the identity element, the aggregate of no values.
+     * @return the identity element
+     */
+    A identity();
+
+    /**
+     * Combines two values; must be associative.
+     * @param x  the earlier value
+     * @param y  the later value
+     * @return the combination of x and y
+     */
+    A combine(A x, A y);
+  } //----------- end of nested Monoid interface -----------
+
+  /**
+   * Returns a monoid with the given identity and operation.
+   * @param identity  the identity element
+   * @param op        the associative operation
+   * @return the monoid
+   */
+  public static <A> Monoid<A> monoid(A identity, BinaryOperator<A> op) {
+    return new Monoid<A>() {
+      public A identity() { return identity; }
+      public A combine(A x, A y) { return op.apply(x, y); }
+    };
+  }
+
+  // instance variables of the AggregatingCircularlyLinkedList
+  /** The elements of the window, oldest first */
+  private final CircularlyLinkedList<E> list;
+
+  /** The operation used to aggregate */
+  private final Monoid<A> monoid;
+
+  /** Maps each element to the value it contributes */
+  private final Function<? super E, ? extends A> lift;
+
+  /** Suffix aggregates of the front elements; the oldest element's is on top */
+  private Object[] front = new Object[0];
+
+  /** Number of entries on the front stack */
+  private int frontCount = 0;
+
+  /** Aggregate of the elements added since the last flip */
+  private A back;
+
+  /** Reusable buffer for the elements copied during a flip */
+  private Object[] scratch = new Object[0];
+
+  /**
+   * Constructs an initially empty, unbounded window.
+   * @param monoid  the operation used to aggregate
+   * @param lift    maps each element to the value it contributes
+   */
+  public AggregatingCircularlyLinkedList(Monoid<A> monoid, Function<? super E, ? extends A> lift) {
+    this(new CircularlyLinkedList<>(), monoid, lift);
+  }
+
+  /**
+   * Constructs an initially empty window holding at most capacity
+   * elements. Once it is full, addLast drops the oldest element.
+   * @param capacity  the maximum number of elements (must be positive)
+   * @param monoid    the operation used to aggregate
+   * @param lift      maps each element to the value it contributes
+   * @throws IllegalArgumentException if capacity is not positive
+   */
+  public AggregatingCircularlyLinkedList(int capacity, Monoid<A> monoid,
+                                         Function<? super E, ? extends A> lift) {
+    this(new CircularlyLinkedList<>(capacity), monoid, lift);
+  }
+
+  private AggregatingCircularlyLinkedList(CircularlyLinkedList<E> list, Monoid<A> monoid,
+                                          Function<? super E, ? extends A> lift) {
+    this.list = list;
+    this.monoid = monoid;
+    this.lift = lift;
+    back = monoid.identity();
+  }
+
+  // access methods
+  /**
+   * Returns the number of elements in the window.
+   * @return number of elements in the window
+   */
+  public int size() { return list.size(); }
+
+  /**
+   * Tests whether the window is empty.
+   * @return true if the window is empty, false otherwise
+   */
+  public boolean isEmpty() { return list.isEmpty(); }
+
+  /**
+   * Returns (but does not remove) the oldest element of the window.
+   * @return element at the front of the window (or null if empty)
+   */
+  public E first() { return list.first(); }
+
+  /**
+   * Returns (but does not remove) the newest element of the window.
+   * @return element at the back of the window (or null if empty)
+   */
+  public E last() { return list.last(); }
+
+  /**
+   * Returns the aggregate of all elements in the window, oldest first.
+   * @return the aggregate (the identity if the window is empty)
+   */
+  @SuppressWarnings("unchecked")
+  public A aggregate() {
+    if (frontCount == 0) return back;
+    return monoid.combine((A) front[frontCount - 1], back);
+  }
+
+  // update methods
+  /**
+   * Adds an element to the end of the window. If the window is bounded
+   * and full, its oldest element is dropped first.
+   * @param e  the new element to add
+   */
+  public void addLast(E e) {
+    if (list.isFull()) popFront();             // the list overwrites its oldest node
+    list.addLast(e);
+    back = monoid.combine(back, lift.apply(e));
+  }
+
+  /**
+   * Removes and returns the oldest element of the window.
+   * @return the removed element (or null if empty)
+   */
+  public E removeFirst() {
+    if (isEmpty()) return null;
+    popFront();
+    return list.removeFirst();
+  }
+
+  /**
+   * Moves the oldest element to the end of the window.
+   */
+  public void rotate() {
+    if (!isEmpty()) addLast(removeFirst());
+  }
+
+  /**
+   * Discards the oldest element's entry on the front stack, first
+   * flipping all elements onto it if it is empty.
+   */
+  @SuppressWarnings("unchecked")
+  private void popFront() {
+    if (frontCount == 0) {
+      int n = list.size();
+      if (scratch.length < n) {
+        scratch = new Object[Math.max(n, 2 * scratch.length)];
+        front = new Object[scratch.length];
+      }
+      list.snapshot((E[]) scratch);
+      A acc = monoid.identity();
+      for (int j = n - 1; j >= 0; j--) {       // newest to oldest
+        acc = monoid.combine(lift.apply((E) scratch[j]), acc);
+        front[n - 1 - j] = acc;
+        scratch[j] = null;
+      }
+      frontCount = n;
+      back = monoid.identity();
+    }
+    front[--frontCount] = null;                // help garbage collection
+  }
+
+  /**
+   * Produces a string representation of the contents of the window.
+   * This exists for debugging purposes only.
+   */
+  public String toString() { return list.toString(); }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.exercise3.YuenKwan.LI;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A multi-pattern matcher (Aho-Corasick automaton) over circularly linked
+ * lists. The automaton is built once from a set of patterns and can then
+ * be run over any number of lists. Each run makes a single pass over
+ * fewer than n + m nodes, where m is the length of the longest pattern,
+ * and reports every occurrence of every pattern, including occurrences
+ * that wrap around from the last element back to the first. Occurrences
+ * are reported as rotation offsets, as by CircularlyLinkedList.indexesOf.
+ * Patterns longer than the list never match.
+ *
+ * Elements are matched with equals and hashCode.
+ */
+public class AhoCorasickMatcher<E> {
+
+  //---------------- nested MatchHandler interface ----------------
+  /** Receives the matches found by a run of the matcher. */
+  public interface MatchHandler {
+    /**
+     * Called once for each occurrence of a pattern.
+     * @param pattern  the index of the pattern that occurs
+     * @param offset   the rotation offset at which it starts
+     */
+    void match(int pattern, int offset);
+  } //----------- end of nested MatchHandler interface -----------
+
+  // instance variables of the AhoCorasickMatcher
+  /** Goto transitions of each state of the automaton (state 0 is the root) */
+  private final List<Map<E, Integer>> transitions = new ArrayList<>();
+
+  /** Failure link of each state: the state for its longest proper suffix */
+  private final int[] fail;
+
+  /** Nearest state along the failure links at which a pattern ends (-1 if none) */
+  private final int[] output;
+
+  /** First pattern ending at each state (-1 if none) */
+  private final int[] patternAt;
+
+  /** Next pattern ending at the same state as each pattern (-1 if none) */
+  private final int[] samePattern;
+
+  /** Length of each pattern */
+  private final int[] lengths;
+
+  /** Length of the longest pattern */
+  private int maxLength = 0;
+
+  /**
+   * Builds a matcher for the given patterns, in time linear in their
+   * total length.
+   * @param patterns  the patterns (none may be empty)
+   * @throws IllegalArgumentException if a pattern is empty
+   */
+  public AhoCorasickMatcher(List<E[]> patterns) {
+    int count = patterns.size();
+    lengths = new int[count];
+    samePattern = new int[count];
+    List<Integer> ends = new ArrayList<>();
+    transitions.add(new HashMap<>());
+    ends.add(-1);
+    // build the trie of patterns
+    for (int p = 0; p < count; p++) {
+      E[] pattern = patterns.get(p);
+      if (pattern.length == 0) throw new IllegalArgumentException("Empty pattern: " + p);
+      int state = 0;
+      for (E e : pattern) {
+        Integer child = transitions.get(state).get(e);
+        if (child == null) {
+          child = transitions.size();
+          transitions.add(new HashMap<>());
+          ends.add(-1);
+          transitions.get(state).put(e, child);
+        }
+        state = child;
+      }
+      lengths[p] = pattern.length;
+      maxLength = Math.max(maxLength, pattern.length);
+      samePattern[p] = ends.get(state);
+      ends.set(state, p);
+    }
+    int states = transitions.size();
+    patternAt = new int[states];
+    for (int s = 0; s < states; s++) patternAt[s] = ends.get(s);
+    // compute failure and output links breadth first
+    fail = new int[states];
+    output = new int[states];
+    output[0] = -1;
+    int[] queue = new int[states];
+    int head = 0, tail = 0;
+    for (int child : transitions.get(0).values()) {
+      fail[child] = 0;
+      output[child] = -1;
+      queue[tail++] = child;
+    }
+    while (head < tail) {
+      int state = queue[head++];
+      for (Map.Entry<E, Integer> edge : transitions.get(state).entrySet()) {
+        int child = edge.getValue();
+        fail[child] = step(fail[state], edge.getKey());
+        int f = fail[child];
+        output[child] = patternAt[f] >= 0 ? f : output[f];
+        queue[tail++] = child;
+      }
+    }
+  }
+
+  /**
+   * Returns the state reached from the given state on the given element,
+   * following failure links as needed.
+   */
+  private int step(int state, E e) {
+    while (true) {
+      Integer next = transitions.get(state).get(e);
+      if (next != null) return next;
+      if (state == 0) return 0;
+      state = fail[state];
+    }
+  }
+
+  /**
+   * Reports every occurrence of every pattern in the list.
+   * @param list     the list to search
+   * @param handler  receives each match
+   */
+  public void search(CircularlyLinkedList<E> list, MatchHandler handler) {
+    int n = list.size();
+    if (n == 0) return;
+    int steps = n + Math.min(maxLength, n) - 1;
+    CircularlyLinkedList<E>.Cursor cursor = list.cursor();
+    int state = 0;
+    for (int t = 0; t < steps; t++) {
+      state = step(state, cursor.current());
+      cursor.advance(1);
+      for (int s = patternAt[state] >= 0 ? state : output[state]; s >= 0; s = output[s])
+        for (int p = patternAt[s]; p >= 0; p = samePattern[p]) {
+          int start = t - lengths[p] + 1;
+          if (lengths[p] <= n && start < n)      // each occurrence is seen once
+            handler.match(p, start);
+        }
+    }
+  }
+}
@@ -22,6 +22,19 @@
  */
 package com.exercise3.YuenKwan.LI;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.changefeed.YuenKwan.LI.ChangeEvent;
+import com.changefeed.YuenKwan.LI.ChangeFeed;
+import com.footprint.YuenKwan.LI.Footprint;
+import com.journal.YuenKwan.LI.OperationLog;
 
 /**
  * An implementation of a circularly linked list.
@@ -69,6 +82,12 @@ public class CircularlyLinkedList<E> {
     public Node<E> getNext() { return next; }
 
     // Modifier methods
+    /**
+     * Sets the node's element.
+     * @param e    the element to be stored
+     */
+    public void setElement(E e) { element = e; }
+
     /**
      * Sets the node's next reference to point to Node n.
      * @param n    the node that should follow this one
@@ -83,8 +102,35 @@ public class CircularlyLinkedList<E> {
   /** Number of nodes in the list */
   private int size = 0;                         // number of nodes in the list
 
+  /** Maximum number of nodes in the list (0 if unbounded) */
+  private final int capacity;                   // fixed capacity, or 0 for none
+
+  /** Removed nodes kept for reuse by a bounded list */
+  private Node<E> spare = null;                 // stack of unused nodes, linked by next
+
+  /** Write-ahead log recording each mutation (null if none) */
+  private OperationLog<E> journal = null;       // optional journal
+
+  /** Feed publishing each mutation (null until requested) */
+  private ChangeFeed<E> feed = null;            // optional change feed
+
   /** Constructs an initially empty list. */
-  public CircularlyLinkedList() { }             // constructs an initially empty list
+  public CircularlyLinkedList() { capacity = 0; }   // constructs an initially empty list
+
+  /**
+   * Constructs an initially empty list holding at most capacity elements.
+   * Once the list is full, addLast and addAllLast overwrite the oldest
+   * (first) elements in place instead of growing the list, while addFirst
+   * and addAllFirst throw IllegalStateException if the elements do not
+   * fit. Removed nodes are kept for reuse, so the list never allocates
+   * again after it has been filled.
+   * @param capacity  the maximum number of elements (must be positive)
+   * @throws IllegalArgumentException if capacity is not positive
+   */
+  public CircularlyLinkedList(int capacity) {
+    if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    this.capacity = capacity;
+  }
 
   // access methods
   /**
@@ -99,6 +145,18 @@ public class CircularlyLinkedList<E> {
    */
   public boolean isEmpty() { return size == 0; }
 
+  /**
+   * Returns the maximum number of elements of a bounded list.
+   * @return the capacity of the list (or 0 if unbounded)
+   */
+  public int capacity() { return capacity; }
+
+  /**
+   * Tests whether a bounded list holds as many elements as it can.
+   * @return true if the list is bounded and full, false otherwise
+   */
+  public boolean isFull() { return capacity > 0 && size == capacity; }
+
   /**
    * Returns (but does not remove) the first element of the list
    * @return element at the front of the list (or null if empty)
@@ -122,32 +180,57 @@ public class CircularlyLinkedList<E> {
    * Rotate the first element to the back of the list.
    */
   public void rotate() {         // rotate the first element to the back of the list
-    if (tail != null)                // if empty, do nothing
+    if (tail != null) {              // if empty, do nothing
+      if (journal != null) log(OperationLog::rotate);
       tail = tail.getNext();         // the old head becomes the new tail
+      if (publishing()) feed.publish(ChangeEvent.rotated());
+    }
   }
 
   /**
    * Adds an element to the front of the list.
    * @param e  the new element to add
+   * @throws IllegalStateException if the list is bounded and full
    */
   public void addFirst(E e) {                // adds element e to the front of the list
+    checkNotFull();
+    if (journal != null) log(j -> j.addFirst(e));
+    linkFirst(e);
+    if (publishing()) feed.publish(ChangeEvent.insertedFirst(e));
+  }
+
+  /**
+   * Links a new node holding the given element at the front of the list.
+   * The list must not be full.
+   */
+  private void linkFirst(E e) {
     if (size == 0) {
-      tail = new Node<>(e, null);
+      tail = newNode(e, null);
       tail.setNext(tail);                     // link to itself circularly
     } else {
-      Node<E> newest = new Node<>(e, tail.getNext());
+      Node<E> newest = newNode(e, tail.getNext());
       tail.setNext(newest);
     }
     size++;
   }
 
   /**
-   * Adds an element to the end of the list.
+   * Adds an element to the end of the list. If the list is bounded and
+   * full, the first (oldest) element is overwritten and becomes the last.
    * @param e  the new element to add
    */
   public void addLast(E e) { // adds element e to the end of the list
-    addFirst(e);             // insert new element at front of list
-    tail = tail.getNext();   // now new element becomes the tail
+    if (journal != null) log(j -> j.addLast(e));
+    if (isFull()) {
+      Node<E> head = tail.getNext();
+      if (publishing()) feed.append(ChangeEvent.removedFirst(head.getElement()));
+      head.setElement(e);    // reuse the oldest node in place
+      tail = head;           // and make it the tail
+    } else {
+      linkFirst(e);          // insert new element at front of list
+      tail = tail.getNext(); // now new element becomes the tail
+    }
+    if (publishing()) feed.publish(ChangeEvent.insertedLast(e));
   }
 
   /**
@@ -156,11 +239,528 @@ public class CircularlyLinkedList<E> {
    */
   public E removeFirst() {                   // removes and returns the first element
     if (isEmpty()) return null;              // nothing to remove
+    if (journal != null) log(OperationLog::removeFirst);
     Node<E> head = tail.getNext();
     if (head == tail) tail = null;           // must be the only node left
     else tail.setNext(head.getNext());       // removes "head" from the list
     size--;
-    return head.getElement();
+    if (publishing()) feed.publish(ChangeEvent.removedFirst(head.getElement()));
+    return release(head);
+  }
+
+  /** Adds the elements of an array, in order, to the front of the list. */
+  public void addAllFirst(E[] elements) { linkAll(Arrays.asList(elements).iterator(), true); }
+
+  /** Adds the given elements, in iteration order, to the front of the list. */
+  public void addAllFirst(Iterable<? extends E> elements) { linkAll(elements.iterator(), true); }
+
+  /** Adds the elements of another list (which may be this one) to the front of this list. */
+  public void addAllFirst(CircularlyLinkedList<? extends E> other) { linkAll(other.elements(), true); }
+
+  /** Adds the elements of an array, in order, to the end of the list. */
+  public void addAllLast(E[] elements) { linkAll(Arrays.asList(elements).iterator(), false); }
+
+  /** Adds the given elements, in iteration order, to the end of the list. */
+  public void addAllLast(Iterable<? extends E> elements) { linkAll(elements.iterator(), false); }
+
+  /** Adds the elements of another list (which may be this one) to the end of this list. */
+  public void addAllLast(CircularlyLinkedList<? extends E> other) { linkAll(other.elements(), false); }
+
+  /**
+   * Removes the first n elements of the list (or all of them, if there
+   * are fewer), unlinking them from the tail as one run.
+   * @param n  the number of elements to remove
+   * @return the number of elements removed
+   * @throws IllegalArgumentException if n is negative
+   */
+  public int removeFirst(int n) {
+    if (n < 0) throw new IllegalArgumentException("Negative count: " + n);
+    return unlinkFirst(Math.min(n, size), null);
+  }
+
+  /**
+   * Removes up to max elements from the front of the list and adds them,
+   * in order, to the given collection. The elements are added before any
+   * is removed, so if the collection rejects one the list is unchanged.
+   * @param c    the collection to add the elements to
+   * @param max  the most elements to move
+   * @return the number of elements moved
+   * @throws IllegalArgumentException if max is negative
+   */
+  public int drainTo(Collection<? super E> c, int max) {
+    if (max < 0) throw new IllegalArgumentException("Negative count: " + max);
+    return unlinkFirst(Math.min(max, size), c);
+  }
+
+  /**
+   * Removes up to dest.length elements from the front of the list,
+   * storing them in order at the start of dest.
+   * @param dest  the array to fill
+   * @return the number of elements removed
+   */
+  public int drain(E[] dest) {
+    int count = Math.min(size, dest.length);
+    for (int j = 0; j < count; j++)
+      dest[j] = removeFirst();
+    return count;
+  }
+
+  /**
+   * Copies up to dest.length elements from the front of the list into
+   * the start of dest, without removing them.
+   * @param dest  the array to fill
+   * @return the number of elements copied
+   */
+  public int snapshot(E[] dest) {
+    int count = Math.min(size, dest.length);
+    Node<E> walk = tail;
+    for (int j = 0; j < count; j++) {
+      walk = walk.getNext();
+      dest[j] = walk.getElement();
+    }
+    return count;
+  }
+
+  // private utilities
+  /**
+   * Backs every addAllFirst and addAllLast overload. The new nodes are
+   * chained together privately first and then linked after the tail in one
+   * step (making the last of them the tail when adding at the end), updating
+   * the size once. As nothing is linked while the elements are read, they
+   * may come from this list. A bounded list reads them all up front: at the
+   * front they must fit, while at the end they are added one at a time so
+   * that each overwrites the oldest element as in addLast.
+   */
+  private void linkAll(Iterator<? extends E> elements, boolean atFront) {
+    if (capacity > 0) {                         // a bounded list checks the count first
+      List<E> pending = new ArrayList<>();
+      elements.forEachRemaining(pending::add);
+      if (!atFront) {                           // keep addLast's overwriting per element
+        for (E e : pending) addLast(e);
+        return;
+      }
+      if (size + pending.size() > capacity) throw new IllegalStateException("List is full");
+      elements = pending.iterator();
+    }
+    List<E> added = journal != null || publishing() ? new ArrayList<>() : null;
+    Node<E> first = null;
+    Node<E> last = null;
+    int count = 0;
+    while (elements.hasNext()) {
+      E e = elements.next();
+      Node<E> newest = newNode(e, null);
+      if (last == null) first = newest;
+      else last.setNext(newest);
+      last = newest;
+      count++;
+      if (added != null) added.add(e);
+    }
+    if (count == 0) return;
+    if (journal != null) log(atFront ? j -> j.prependAll(added) : j -> j.appendAll(added));
+    if (size == 0) {
+      last.setNext(first);                      // close the circle
+      tail = last;
+    } else {
+      last.setNext(tail.getNext());             // the chain goes between tail and head
+      tail.setNext(first);
+      if (!atFront) tail = last;
+    }
+    size += count;
+    if (added != null && publishing()) {
+      if (atFront)
+        for (int j = count - 1; j >= 0; j--) feed.append(ChangeEvent.insertedFirst(added.get(j)));
+      else
+        for (E e : added) feed.append(ChangeEvent.insertedLast(e));
+      feed.endOperation();
+    }
+  }
+
+  /**
+   * Unlinks the first count nodes from the tail as one run, first adding
+   * their elements in order to dest (if not null).
+   */
+  private int unlinkFirst(int count, Collection<? super E> dest) {
+    if (count == 0) return 0;
+    Node<E> last = tail;
+    for (int j = 0; j < count; j++) {
+      last = last.getNext();
+      if (dest != null) dest.add(last.getElement());
+    }
+    if (journal != null) log(j -> j.removeFirst(count));
+    Node<E> head = tail.getNext();
+    if (count == size) tail = null;             // the run is the whole list
+    else tail.setNext(last.getNext());
+    size -= count;
+    if (capacity > 0 || publishing()) {         // publish and recycle the run
+      Node<E> walk = head;
+      for (int j = 0; j < count; j++) {
+        Node<E> next = walk.getNext();
+        if (publishing()) feed.append(ChangeEvent.removedFirst(walk.getElement()));
+        release(walk);
+        walk = next;
+      }
+      if (publishing()) feed.endOperation();
+    }
+    return count;
+  }
+
+  /** Returns an iterator over the elements, from first to last. */
+  private Iterator<E> elements() {
+    return new Iterator<E>() {
+      private Node<E> walk = tail;
+      private int remaining = size;
+
+      public boolean hasNext() { return remaining > 0; }
+
+      public E next() {
+        if (remaining == 0) throw new NoSuchElementException();
+        walk = walk.getNext();
+        remaining--;
+        return walk.getElement();
+      }
+    };
+  }
+
+  /**
+   * Returns a node holding the given element and next reference, reusing
+   * a spare node when one is available.
+   */
+  private Node<E> newNode(E e, Node<E> n) {
+    if (spare == null) return new Node<>(e, n);
+    Node<E> node = spare;
+    spare = node.getNext();
+    node.setElement(e);
+    node.setNext(n);
+    return node;
+  }
+
+  /**
+   * Returns the element of a node just unlinked from the list. A bounded
+   * list keeps the node for reuse.
+   */
+  private E release(Node<E> node) {
+    E e = node.getElement();
+    if (capacity > 0) {
+      node.setElement(null);                 // help garbage collection
+      node.setNext(spare);
+      spare = node;
+    }
+    return e;
+  }
+
+  /** Rejects an insertion that would grow a full bounded list. */
+  private void checkNotFull() {
+    if (isFull()) throw new IllegalStateException("List is full");
+  }
+
+  /**
+   * Removes every k-th element in a single sweep around the list,
+   * starting the count at the first element. For example, with k = 3
+   * the 3rd, 6th, 9th, ... elements are removed. Runs in O(n) time
+   * and allocates nothing.
+   * @param k  the step between removed elements (must be positive)
+   * @return the number of elements removed
+   * @throws IllegalArgumentException if k is not positive
+   */
+  public int removeEvery(int k) {
+    if (k <= 0) throw new IllegalArgumentException("Step must be positive: " + k);
+    int n = size;
+    if (n == 0 || k > n) return 0;
+    if (journal != null) log(j -> j.removeEvery(k));
+    if (publishing()) feed.publish(ChangeEvent.removedEvery(k));
+    Node<E> prev = tail;                     // node just before the one being counted
+    int removed = 0;
+    for (int count = 1; count <= n; count++) {
+      Node<E> walk = prev.getNext();
+      if (count % k == 0) {
+        prev.setNext(walk.getNext());        // unlink walk
+        if (walk == tail) tail = prev;
+        release(walk);
+        removed++;
+      } else {
+        prev = walk;
+      }
+    }
+    size -= removed;
+    if (size == 0) tail = null;
+    return removed;
+  }
+
+  /**
+   * Finds every place where the given sequence of elements occurs in the
+   * list, allowing a match to wrap around from the last element back to
+   * the first. Each match is reported as a rotation offset: the number of
+   * rotate() calls that would bring its first element to the front. Uses
+   * the Knuth-Morris-Pratt algorithm, so it runs in O(n + m) time with a
+   * single pass over fewer than n + m nodes. A pattern longer than the
+   * list never matches.
+   * @param pattern  the sequence of elements to find (must not be empty)
+   * @return the rotation offsets of all matches, in increasing order
+   * @throws IllegalArgumentException if the pattern is empty
+   */
+  public int[] indexesOf(E[] pattern) {
+    int m = pattern.length;
+    if (m == 0) throw new IllegalArgumentException("Empty pattern");
+    if (m > size) return new int[0];
+    int[] fail = new int[m];                 // fail[j] = length of longest proper border of pattern[0..j]
+    for (int j = 1, k = 0; j < m; j++) {
+      while (k > 0 && !pattern[j].equals(pattern[k])) k = fail[k - 1];
+      if (pattern[j].equals(pattern[k])) k++;
+      fail[j] = k;
+    }
+    int[] found = new int[size];
+    int count = 0;
+    Node<E> walk = tail;
+    for (int t = 0, k = 0; t < size + m - 1; t++) {
+      walk = walk.getNext();
+      E e = walk.getElement();
+      while (k > 0 && !pattern[k].equals(e)) k = fail[k - 1];
+      if (pattern[k].equals(e)) k++;
+      if (k == m) {                          // match ends at t
+        found[count++] = t - m + 1;
+        k = fail[k - 1];
+      }
+    }
+    return Arrays.copyOf(found, count);
+  }
+
+  /**
+   * Returns a new cursor positioned at the first element of the list.
+   * @return a cursor over this list
+   */
+  public Cursor cursor() { return new Cursor(); }
+
+  //---------------- nested Cursor class ----------------
+  /**
+   * A cursor over the list that remembers the node before its current
+   * position, so the current element can be removed (or an element
+   * inserted after it) in O(1) time. A list should only be modified
+   * through one cursor at a time; changes made by other means while a
+   * cursor is in use may leave that cursor out of place. A cursor cannot
+   * modify a list that has a journal attached.
+   */
+  public class Cursor {
+
+    /** The node just before the current position (null if the list was empty) */
+    private Node<E> prev = tail;
+
+    /** The index of the current position, counted from the first element */
+    private int position = 0;
+
+    /** Creates a cursor positioned at the first element. */
+    private Cursor() { }
+
+    /**
+     * Tests whether the cursor is positioned at an element.
+     * @return true if the list is not empty, false otherwise
+     */
+    public boolean hasCurrent() {
+      if (prev == null) {                      // the list may have gained elements
+        prev = tail;
+        position = 0;
+      }
+      return prev != null;
+    }
+
+    /**
+     * Returns (but does not remove) the element at the cursor.
+     * @return the current element (or null if the list is empty)
+     */
+    public E current() {
+      if (!hasCurrent()) return null;
+      return prev.getNext().getElement();
+    }
+
+    /**
+     * Moves the cursor k positions forward around the list. Only
+     * k mod size steps are actually taken.
+     * @param k  the number of positions to move (must not be negative)
+     * @throws IllegalArgumentException if k is negative
+     */
+    public void advance(int k) {
+      if (k < 0) throw new IllegalArgumentException("Negative step: " + k);
+      if (!hasCurrent()) return;
+      int steps = k % size;
+      for (int j = steps; j > 0; j--)
+        prev = prev.getNext();
+      position = (position + steps) % size;
+    }
+
+    /**
+     * Removes and returns the element at the cursor. The cursor moves
+     * on to the element that followed the removed one.
+     * @return the removed element (or null if the list is empty)
+     * @throws IllegalStateException if the list has a journal attached
+     */
+    public E removeCurrent() {
+      checkNotJournaled();
+      if (!hasCurrent()) return null;
+      Node<E> current = prev.getNext();
+      if (current == prev) {                   // must be the only node left
+        tail = null;
+        prev = null;
+      } else {
+        prev.setNext(current.getNext());
+        if (current == tail) tail = prev;
+      }
+      size--;
+      int removedAt = position;
+      if (position == size) position = 0;      // the removed element was the last
+      if (publishing()) feed.publish(ChangeEvent.removedAt(removedAt, current.getElement()));
+      return release(current);
+    }
+
+    /**
+     * Inserts an element just after the one at the cursor, leaving the
+     * cursor where it is. If the cursor is at the last element, the new
+     * element becomes the last. If the list is empty, the new element
+     * becomes its only element and the cursor is positioned at it.
+     * @param e  the new element to insert
+     * @throws IllegalStateException if the list is bounded and full,
+     *         or has a journal attached
+     */
+    public void insertAfterCurrent(E e) {
+      checkNotJournaled();
+      if (!hasCurrent()) {
+        linkFirst(e);
+        prev = tail;
+        position = 0;
+        if (publishing()) feed.publish(ChangeEvent.insertedAt(0, e));
+        return;
+      }
+      checkNotFull();
+      Node<E> current = prev.getNext();
+      Node<E> newest = newNode(e, current.getNext());
+      current.setNext(newest);
+      if (current == tail) tail = newest;
+      if (prev == current) prev = newest;      // a lone node was its own predecessor
+      size++;
+      if (publishing()) feed.publish(ChangeEvent.insertedAt(position + 1, e));
+    }
+
+    /** Rejects cursor updates, which a journal cannot record by position. */
+    private void checkNotJournaled() {
+      if (journal != null) throw new IllegalStateException("Cursor updates are not journaled");
+    }
+  } //----------- end of nested Cursor class -----------
+
+  /** Reallocates the nodes in order from the head, spares last; cursors become invalid. */
+  public void compact() {
+    int spares = 0;
+    for (Node<E> walk = spare; walk != null; walk = walk.getNext())
+      spares++;
+    if (size > 0) {
+      Node<E> walk = tail.getNext();
+      Node<E> head = new Node<>(walk.getElement(), null);
+      Node<E> last = head;
+      for (int j = 1; j < size; j++) {
+        walk = walk.getNext();
+        Node<E> copy = new Node<>(walk.getElement(), null);
+        last.setNext(copy);
+        last = copy;
+      }
+      last.setNext(head);                        // close the circle
+      tail = last;
+    }
+    spare = null;
+    for (; spares > 0; spares--)
+      spare = new Node<>(null, spare);
+  }
+
+  /**
+   * Estimates the heap retained by this list. A circularly linked list
+   * has no sentinels; the links include the spare nodes of a bounded list.
+   * @return the estimated bytes of links, elements and sentinels
+   */
+  public Footprint footprint() {
+    long node = Footprint.objectSize(2, 0);     // element and next
+    long links = size * node;
+    for (Node<E> walk = spare; walk != null; walk = walk.getNext())
+      links += node;
+    Footprint.Elements elements = new Footprint.Elements();
+    Node<E> walk = tail;
+    for (int j = 0; j < size; j++) {
+      walk = walk.getNext();
+      elements.add(walk.getElement());
+    }
+    return new Footprint(links, elements.bytes(), 0);
+  }
+
+  /**
+   * Returns the feed of this list's mutations, creating it on first use.
+   * Events are only created while the feed has subscribers.
+   * @return the change feed of this list
+   */
+  public ChangeFeed<E> changes() {
+    if (feed == null) feed = new ChangeFeed<>();
+    return feed;
+  }
+
+  /**
+   * Tests whether mutations should be published to the change feed.
+   */
+  private boolean publishing() { return feed != null && feed.isActive(); }
+
+  /**
+   * Rebuilds this list from the given log and then records every later
+   * mutation in it before the mutation is made. Records left incomplete
+   * by a crash are discarded. A bounded list must be given the same
+   * capacity as the list that wrote the log.
+   *
+   * @param log  the log to replay and then append to
+   * @throws IOException if the log cannot be read or is corrupt before its end
+   * @throws IllegalStateException if the list is not empty
+   */
+  public void attachJournal(OperationLog<E> log) throws IOException {
+    if (!isEmpty()) throw new IllegalStateException("List must be empty to replay a journal");
+    log.replay(new OperationLog.Target<E>() {
+      public void addFirst(E e) { CircularlyLinkedList.this.addFirst(e); }
+      public void addLast(E e) { CircularlyLinkedList.this.addLast(e); }
+      public E removeFirst() { return CircularlyLinkedList.this.removeFirst(); }
+      public E removeLast() throws IOException { throw OperationLog.unsupported("removeLast"); }
+      public void swap(int i, int j) throws IOException { throw OperationLog.unsupported("swap"); }
+      public void move(int from, int to) throws IOException { throw OperationLog.unsupported("move"); }
+      public void permute(int[] newOrder) throws IOException {
+        throw OperationLog.unsupported("permute");
+      }
+      public void rotate() { CircularlyLinkedList.this.rotate(); }
+      public void removeEvery(int k) { CircularlyLinkedList.this.removeEvery(k); }
+    });
+    journal = log;
+  }
+
+  /**
+   * Replaces the attached journal with a single record of the current
+   * contents of the list.
+   * @throws IOException if the checkpoint cannot be written
+   * @throws IllegalStateException if no journal is attached
+   */
+  public void checkpoint() throws IOException {
+    if (journal == null) throw new IllegalStateException("No journal attached");
+    List<E> contents = new ArrayList<>(size);
+    Node<E> walk = tail;
+    for (int j = 0; j < size; j++) {
+      walk = walk.getNext();
+      contents.add(walk.getElement());
+    }
+    journal.checkpoint(contents);
+  }
+
+  /** A single write to the journal. */
+  private interface JournalWrite<E> {
+    void write(OperationLog<E> journal) throws IOException;
+  }
+
+  /**
+   * Performs a write to the journal, rethrowing any I/O error unchecked
+   * so that the update methods keep their signatures.
+   */
+  private void log(JournalWrite<E> write) {
+    try {
+      write.write(journal);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
   /**
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.exercise3.YuenKwan.LI;
+
+import com.footprint.YuenKwan.LI.Footprint;
+import com.symbols.YuenKwan.LI.SymbolTable;
+
+/**
+ * A circularly linked list of strings that stores each element as an int
+ * code into a SymbolTable, for lists holding many occurrences of few
+ * distinct strings. All occurrences of a string share the table's single
+ * instance, and searches and hasSameElementsSeq compare codes instead of
+ * calling equals. (A node holding a code is no smaller than one holding
+ * a compressed reference; the saving is in the strings.) Lists sharing a
+ * table can be read concurrently with interning by other lists, but a
+ * list itself is not thread-safe.
+ */
+public class EncodedCircularlyLinkedList {
+  //---------------- nested Node class ----------------
+  /**
+   * Singly linked node, which stores an element code and a reference to
+   * the subsequent node in the list.
+   */
+  private static class Node {
+
+    /** The code of the element stored at this node */
+    private int code;
+
+    /** A reference to the subsequent node in the list */
+    private Node next;
+
+    /**
+     * Creates a node with the given code and next node.
+     *
+     * @param c  the code to be stored
+     * @param n  reference to a node that should follow the new node
+     */
+    private Node(int c, Node n) {
+      code = c;
+      next = n;
+    }
+  } //----------- end of nested Node class -----------
+
+  // instance variables of the EncodedCircularlyLinkedList
+  /** The table the element codes refer to */
+  private final SymbolTable symbols;
+
+  /** The designated cursor of the list */
+  private Node tail = null;                     // we store tail (but not head)
+
+  /** Number of nodes in the list */
+  private int size = 0;                         // number of nodes in the list
+
+  /** Constructs an initially empty list with its own symbol table. */
+  public EncodedCircularlyLinkedList() { this(new SymbolTable()); }
+
+  /**
+   * Constructs an initially empty list encoding its elements into the
+   * given table.
+   * @param symbols  the (possibly shared) symbol table
+   */
+  public EncodedCircularlyLinkedList(SymbolTable symbols) { this.symbols = symbols; }
+
+  // access methods
+  /**
+   * Returns the symbol table the element codes refer to.
+   * @return the symbol table
+   */
+  public SymbolTable symbols() { return symbols; }
+
+  /**
+   * Returns the number of elements in the linked list.
+   * @return number of elements in the linked list
+   */
+  public int size() { return size; }
+
+  /**
+   * Tests whether the linked list is empty.
+   * @return true if the linked list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns (but does not remove) the first element of the list.
+   * @return element at the front of the list (or null if empty)
+   */
+  public String first() {
+    if (isEmpty()) return null;
+    return symbols.symbol(tail.next.code);      // the head is *after* the tail
+  }
+
+  /**
+   * Returns (but does not remove) the last element of the list.
+   * @return element at the back of the list (or null if empty)
+   */
+  public String last() {
+    if (isEmpty()) return null;
+    return symbols.symbol(tail.code);
+  }
+
+  /**
+   * Returns the position of the first occurrence of a string, counted
+   * from the head and comparing codes rather than strings.
+   * @param e  the string to search for
+   * @return its position (or -1 if it does not occur)
+   */
+  public int indexOf(String e) {
+    int code = symbols.code(e);
+    if (code < 0 || isEmpty()) return -1;      // never interned, so not in any list
+    Node walk = tail;
+    for (int j = 0; j < size; j++) {
+      walk = walk.next;
+      if (walk.code == code) return j;
+    }
+    return -1;
+  }
+
+  // update methods
+  /**
+   * Rotate the first element to the back of the list.
+   */
+  public void rotate() {
+    if (tail != null)                           // if empty, do nothing
+      tail = tail.next;                         // the old head becomes the new tail
+  }
+
+  /**
+   * Adds an element to the front of the list.
+   * @param e  the new element to add
+   * @throws IllegalArgumentException if e is null
+   */
+  public void addFirst(String e) {
+    int code = symbols.intern(e);
+    if (size == 0) {
+      tail = new Node(code, null);
+      tail.next = tail;                         // link to itself circularly
+    } else {
+      tail.next = new Node(code, tail.next);
+    }
+    size++;
+  }
+
+  /**
+   * Adds an element to the end of the list.
+   * @param e  the new element to add
+   * @throws IllegalArgumentException if e is null
+   */
+  public void addLast(String e) {
+    addFirst(e);                                // insert new element at front of list
+    tail = tail.next;                           // now new element becomes the tail
+  }
+
+  /**
+   * Removes and returns the first element of the list.
+   * @return the removed element (or null if empty)
+   */
+  public String removeFirst() {
+    if (isEmpty()) return null;                 // nothing to remove
+    Node head = tail.next;
+    if (head == tail) tail = null;              // must be the only node left
+    else tail.next = head.next;                 // removes "head" from the list
+    size--;
+    return symbols.symbol(head.code);
+  }
+
+  /**
+   * Estimates the heap retained by this list. The elements are the
+   * distinct strings the list refers to, which are shared with the symbol
+   * table and any other list using it; the table's own index is not
+   * included. A circularly linked list has no sentinels.
+   * @return the estimated bytes of links, elements and sentinels
+   */
+  public Footprint footprint() {
+    Footprint.Elements elements = new Footprint.Elements();
+    Node walk = tail;
+    for (int j = 0; j < size; j++) {
+      walk = walk.next;
+      elements.add(symbols.symbol(walk.code));
+    }
+    return new Footprint(size * Footprint.objectSize(1, 4), elements.bytes(), 0);  // next and code
+  }
+
+  /**
+   * Produces a string representation of the contents of the list.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    if (tail == null) return "()";
+    StringBuilder sb = new StringBuilder("(");
+    Node walk = tail;
+    do {
+      walk = walk.next;
+      sb.append(symbols.symbol(walk.code));
+      if (walk != tail)
+        sb.append(", ");
+    } while (walk != tail);
+    sb.append(")");
+    return sb.toString();
+  }
+
+  /**
+   * Checks if two lists store the same circular sequence of elements,
+   * that is, whether one is a rotation of the other. L2's codes are
+   * searched for in L1 read twice around with the Knuth-Morris-Pratt
+   * algorithm, comparing ints, so the check takes O(n) time even when
+   * elements repeat. Lists with different symbol tables are compared by
+   * translating L2's codes into L1's table first.
+   *
+   * @param L1 the first list
+   * @param L2 the second list
+   * @return true if L1 and L2 store the same sequence of elements, false otherwise
+   */
+  public static boolean hasSameElementsSeq(EncodedCircularlyLinkedList L1, EncodedCircularlyLinkedList L2) {
+    if (L1.size != L2.size) return false;       // different sizes, sequences cannot match
+    if (L1.isEmpty()) return true;              // both lists are empty, so sequences match
+    int n = L1.size;
+    int[] pattern = new int[n];
+    Node walk = L2.tail;
+    for (int j = 0; j < n; j++) {
+      walk = walk.next;
+      pattern[j] = L1.symbols == L2.symbols ? walk.code
+                   : L1.symbols.code(L2.symbols.symbol(walk.code));
+      if (pattern[j] < 0) return false;         // a string L1 has never held
+    }
+    int[] fail = new int[n];                    // KMP failure function of the pattern
+    for (int j = 1, k = 0; j < n; j++) {
+      while (k > 0 && pattern[j] != pattern[k]) k = fail[k - 1];
+      if (pattern[j] == pattern[k]) k++;
+      fail[j] = k;
+    }
+    walk = L1.tail;
+    for (int j = 0, k = 0; j < 2 * n - 1; j++) {  // every rotation starts in the first n
+      walk = walk.next;
+      while (k > 0 && walk.code != pattern[k]) k = fail[k - 1];
+      if (walk.code == pattern[k]) k++;
+      if (k == n) return true;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.exercise3.YuenKwan.LI;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A circularly linked list of long values used as a sliding window, which
+ * maintains the sum, mean, minimum and maximum of its elements as they
+ * enter through addLast and leave through removeFirst. This is the
+ * primitive counterpart of AggregatingCircularlyLinkedList: values are
+ * stored unboxed and the aggregates are fixed rather than pluggable.
+ * Each aggregate is available in O(1) time and is kept up to date in
+ * O(1) amortized time per update.
+ *
+ * The minimum and maximum use the two-stack queue technique: elements
+ * added since the last flip are folded into running values, and on the
+ * first removal after a flip every element's suffix minimum and maximum
+ * are computed once, in a single pass.
+ * The sum is kept as a running total, which is exact for long values
+ * (intermediate overflow wraps around and cancels out).
+ */
+public class LongAggregatingCircularlyLinkedList {
+  //---------------- nested Node class ----------------
+  /**
+   * Singly linked node, which stores a value and a reference to the
+   * subsequent node in the list.
+   */
+  private static class Node {
+
+    /** The value stored at this node */
+    private long element;
+
+    /** A reference to the subsequent node in the list */
+    private Node next;
+
+    /**
+     * Creates a node with the given value and next node.
+     *
+     * @param e  the value to be stored
+     * @param n  reference to a node that should follow the new node
+     */
+    private Node(long e, Node n) {
+      element = e;
+      next = n;
+    }
+  } //----------- end of nested Node class -----------
+
+  // instance variables of the LongAggregatingCircularlyLinkedList
+  /** The designated cursor of the list */
+  private Node tail = null;                     // we store tail (but not head)
+
+  /** Number of nodes in the list */
+  private int size = 0;                         // number of nodes in the list
+
+  /** Maximum number of nodes in the list (0 if unbounded) */
+  private final int capacity;
+
+  /** Suffix minima of the front elements; the oldest element's is on top */
+  private long[] frontMin = new long[0];
+
+  /** Suffix maxima of the front elements; the oldest element's is on top */
+  private long[] frontMax = new long[0];
+
+  /** Number of entries on the front stacks */
+  private int frontCount = 0;
+
+  /** Sum of all elements in the window */
+  private long sum = 0;
+
+  /** Minimum of the elements added since the last flip */
+  private long backMin = Long.MAX_VALUE;
+
+  /** Maximum of the elements added since the last flip */
+  private long backMax = Long.MIN_VALUE;
+
+  /** Reusable buffer for the values copied during a flip */
+  private long[] scratch = new long[0];
+
+  /** Constructs an initially empty, unbounded window. */
+  public LongAggregatingCircularlyLinkedList() { capacity = 0; }
+
+  /**
+   * Constructs an initially empty window holding at most capacity
+   * values. Once it is full, addLast overwrites the oldest value in
+   * place, so the window never allocates again after it has been filled.
+   * @param capacity  the maximum number of values (must be positive)
+   * @throws IllegalArgumentException if capacity is not positive
+   */
+  public LongAggregatingCircularlyLinkedList(int capacity) {
+    if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    this.capacity = capacity;
+  }
+
+  // access methods
+  /**
+   * Returns the number of values in the window.
+   * @return number of values in the window
+   */
+  public int size() { return size; }
+
+  /**
+   * Tests whether the window is empty.
+   * @return true if the window is empty, false otherwise
+   */
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns (but does not remove) the oldest value of the window.
+   * @return value at the front of the window
+   * @throws NoSuchElementException if the window is empty
+   */
+  public long first() {
+    if (isEmpty()) throw new NoSuchElementException("Window is empty");
+    return tail.next.element;                   // the head is *after* the tail
+  }
+
+  /**
+   * Returns (but does not remove) the newest value of the window.
+   * @return value at the back of the window
+   * @throws NoSuchElementException if the window is empty
+   */
+  public long last() {
+    if (isEmpty()) throw new NoSuchElementException("Window is empty");
+    return tail.element;
+  }
+
+  /**
+   * Returns the sum of the values in the window.
+   * @return the sum (0 if the window is empty)
+   */
+  public long sum() { return sum; }
+
+  /**
+   * Returns the mean of the values in the window.
+   * @return the mean (NaN if the window is empty)
+   */
+  public double mean() {
+    return isEmpty() ? Double.NaN : (double) sum() / size;
+  }
+
+  /**
+   * Returns the smallest value in the window.
+   * @return the minimum (Long.MAX_VALUE if the window is empty)
+   */
+  public long min() {
+    return frontCount == 0 ? backMin : Math.min(frontMin[frontCount - 1], backMin);
+  }
+
+  /**
+   * Returns the largest value in the window.
+   * @return the maximum (Long.MIN_VALUE if the window is empty)
+   */
+  public long max() {
+    return frontCount == 0 ? backMax : Math.max(frontMax[frontCount - 1], backMax);
+  }
+
+  // update methods
+  /**
+   * Adds a value to the end of the window. If the window is bounded and
+   * full, the oldest value is overwritten and becomes the newest.
+   * @param e  the new value to add
+   */
+  public void addLast(long e) {
+    if (capacity > 0 && size == capacity) {
+      popFront();
+      Node head = tail.next;
+      head.element = e;                         // reuse the oldest node in place
+      tail = head;                              // and make it the tail
+    } else {
+      if (size == 0) {
+        tail = new Node(e, null);
+        tail.next = tail;                       // link to itself circularly
+      } else {
+        Node newest = new Node(e, tail.next);
+        tail.next = newest;
+        tail = newest;
+      }
+      size++;
+    }
+    sum += e;
+    backMin = Math.min(backMin, e);
+    backMax = Math.max(backMax, e);
+  }
+
+  /**
+   * Removes and returns the oldest value of the window.
+   * @return the removed value
+   * @throws NoSuchElementException if the window is empty
+   */
+  public long removeFirst() {
+    if (isEmpty()) throw new NoSuchElementException("Window is empty");
+    popFront();
+    Node head = tail.next;
+    if (head == tail) tail = null;              // must be the only node left
+    else tail.next = head.next;                 // removes "head" from the list
+    size--;
+    return head.element;
+  }
+
+  /**
+   * Moves the oldest value to the end of the window.
+   */
+  public void rotate() {
+    if (!isEmpty()) addLast(removeFirst());
+  }
+
+  /**
+   * Discards the oldest value's entries on the front stacks, first
+   * flipping all values onto them if they are empty.
+   */
+  private void popFront() {
+    if (frontCount == 0) {
+      int n = size;
+      if (scratch.length < n) {
+        scratch = new long[Math.max(n, 2 * scratch.length)];
+        frontMin = new long[scratch.length];
+        frontMax = new long[scratch.length];
+      }
+      Node walk = tail;
+      for (int j = 0; j < n; j++) {            // copy oldest to newest
+        walk = walk.next;
+        scratch[j] = walk.element;
+      }
+      long min = Long.MAX_VALUE;
+      long max = Long.MIN_VALUE;
+      for (int j = n - 1; j >= 0; j--) {       // fold newest to oldest
+        long v = scratch[j];
+        min = Math.min(min, v);
+        max = Math.max(max, v);
+        frontMin[n - 1 - j] = min;
+        frontMax[n - 1 - j] = max;
+      }
+      frontCount = n;
+      backMin = Long.MAX_VALUE;
+      backMax = Long.MIN_VALUE;
+    }
+    sum -= tail.next.element;
+    frontCount--;
+  }
+
+  /**
+   * Produces a string representation of the contents of the window.
+   * This exists for debugging purposes only.
+   */
+  public String toString() {
+    if (tail == null) return "()";
+    StringBuilder sb = new StringBuilder("(");
+    Node walk = tail;
+    do {
+      walk = walk.next;
+      sb.append(walk.element);
+      if (walk != tail)
+        sb.append(", ");
+    } while (walk != tail);
+    sb.append(")");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.exercise3.YuenKwan.LI;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Groups many circularly linked lists into classes of lists that store
+ * the same cycle of elements up to rotation, in roughly linear total time.
+ *
+ * Each list is reduced to a canonical rotation, found with Booth's least
+ * rotation algorithm, and a hash of the elements in that rotation. Only
+ * the offset of the canonical rotation and the hash are kept for each
+ * list; these are computed in parallel on a fork-join pool. Lists are
+ * then bucketed by hash, candidates in a bucket are compared element by
+ * element (so hash collisions never merge distinct classes), and the
+ * classes are passed to a consumer one at a time.
+ *
+ * The comparator must be consistent with equals, and equal elements must
+ * have equal hash codes.
+ */
+public class RotationEquivalence {
+
+  /** Number of lists below which a task is no longer split */
+  private static final int THRESHOLD = 256;
+
+  private RotationEquivalence() { }           // not instantiable
+
+  /**
+   * Groups the lists into rotation-equivalence classes on the common
+   * fork-join pool. Classes are passed to the sink in the order of their
+   * first member; members appear in input order.
+   *
+   * @param lists  the lists to group
+   * @param order  a total order on the elements, consistent with equals
+   * @param sink   receives each equivalence class
+   */
+  public static <E> void group(List<CircularlyLinkedList<E>> lists, Comparator<? super E> order,
+                               Consumer<? super List<CircularlyLinkedList<E>>> sink) {
+    group(lists, order, ForkJoinPool.commonPool(), sink);
+  }
+
+  /**
+   * Groups the lists into rotation-equivalence classes, computing the
+   * canonical rotations on the given pool. Classes are passed to the sink
+   * in the order of their first member; members appear in input order.
+   *
+   * @param lists  the lists to group
+   * @param order  a total order on the elements, consistent with equals
+   * @param pool   the pool used to compute canonical rotations
+   * @param sink   receives each equivalence class
+   */
+  public static <E> void group(List<CircularlyLinkedList<E>> lists, Comparator<? super E> order,
+                               ForkJoinPool pool, Consumer<? super List<CircularlyLinkedList<E>>> sink) {
+    int count = lists.size();
+    int[] offsets = new int[count];
+    long[] hashes = new long[count];
+    pool.invoke(new CanonicalTask<>(lists, order, offsets, hashes, 0, count));
+
+    // bucket the lists by hash in an open-addressing table of representatives
+    int slots = Integer.highestOneBit(Math.max(1, count) * 2 - 1) * 2;
+    int[] table = new int[slots];               // representative index + 1 (0 if unused)
+    int[] nextRep = new int[count];             // other representatives with the same hash
+    int[] lastMember = new int[count];          // last member so far of each class
+    int[] nextMember = new int[count];          // next member of the same class (-1 if none)
+    Object[] scratch1 = new Object[0], scratch2 = new Object[0];
+    for (int i = 0; i < count; i++) {
+      nextMember[i] = -1;
+      int slot = (int) mix(hashes[i]) & (slots - 1);
+      while (table[slot] != 0 && hashes[table[slot] - 1] != hashes[i])
+        slot = (slot + 1) & (slots - 1);       // linear probing
+      int rep = table[slot] - 1;
+      int previous = -1;
+      while (rep >= 0) {
+        CircularlyLinkedList<E> a = lists.get(rep), b = lists.get(i);
+        int n = a.size();
+        if (scratch1.length < n) {
+          scratch1 = new Object[n];
+          scratch2 = new Object[n];
+        }
+        if (n == b.size() && canonicalEquals(a, offsets[rep], b, offsets[i], order, scratch1, scratch2))
+          break;
+        previous = rep;
+        rep = nextRep[rep];
+      }
+      if (rep >= 0) {                           // join an existing class
+        nextMember[lastMember[rep]] = i;
+        lastMember[rep] = i;
+      } else {                                  // start a new class
+        nextRep[i] = -1;
+        lastMember[i] = i;
+        if (previous >= 0) nextRep[previous] = i;
+        else table[slot] = i + 1;
+      }
+    }
+
+    // emit each class, in the order of its first member
+    boolean[] emitted = new boolean[count];
+    for (int i = 0; i < count; i++) {
+      if (emitted[i]) continue;
+      List<CircularlyLinkedList<E>> members = new ArrayList<>();
+      for (int m = i; m >= 0; m = nextMember[m]) {
+        members.add(lists.get(m));
+        emitted[m] = true;
+      }
+      sink.accept(members);
+    }
+  }
+
+  /**
+   * Computes the offset of the least rotation of the list and the hash
+   * of the elements in that rotation, for a range of the input lists.
+   */
+  private static class CanonicalTask<E> extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<CircularlyLinkedList<E>> lists;
+    private final Comparator<? super E> order;
+    private final int[] offsets;
+    private final long[] hashes;
+    private final int from, to;
+
+    CanonicalTask(List<CircularlyLinkedList<E>> lists, Comparator<? super E> order,
+                  int[] offsets, long[] hashes, int from, int to) {
+      this.lists = lists;
+      this.order = order;
+      this.offsets = offsets;
+      this.hashes = hashes;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void compute() {
+      if (to - from > THRESHOLD) {
+        int mid = (from + to) >>> 1;
+        invokeAll(new CanonicalTask<>(lists, order, offsets, hashes, from, mid),
+                  new CanonicalTask<>(lists, order, offsets, hashes, mid, to));
+        return;
+      }
+      Object[] elements = new Object[0];        // scratch reused across the range
+      int[] failure = new int[0];
+      for (int i = from; i < to; i++) {
+        CircularlyLinkedList<E> list = lists.get(i);
+        int n = list.size();
+        if (elements.length < n) {
+          elements = new Object[n];
+          failure = new int[2 * n];
+        }
+        list.snapshot((E[]) elements);
+        int k = leastRotation((E[]) elements, n, order, failure);
+        long h = n;
+        for (int j = 0; j < n; j++)
+          h = 31 * h + elements[(k + j) % n].hashCode();
+        offsets[i] = k;
+        hashes[i] = h;
+      }
+    }
+  }
+
+  /**
+   * Returns the offset of the lexicographically least rotation of the
+   * first n elements of s, by Booth's algorithm, in O(n) time.
+   *
+   * @param s        the elements, in list order
+   * @param n        the number of elements
+   * @param order    the order on the elements
+   * @param failure  scratch space of at least 2n entries
+   * @return the offset at which the least rotation starts (0 if n is 0)
+   */
+  static <E> int leastRotation(E[] s, int n, Comparator<? super E> order, int[] failure) {
+    if (n == 0) return 0;
+    Arrays.fill(failure, 0, 2 * n, -1);
+    int k = 0;
+    for (int j = 1; j < 2 * n; j++) {
+      E sj = s[j % n];
+      int i = failure[j - k - 1];
+      while (i != -1 && order.compare(sj, s[(k + i + 1) % n]) != 0) {
+        if (order.compare(sj, s[(k + i + 1) % n]) < 0)
+          k = j - i - 1;
+        i = failure[i];
+      }
+      if (i == -1 && order.compare(sj, s[k % n]) != 0) {
+        if (order.compare(sj, s[k % n]) < 0)
+          k = j;
+        failure[j - k] = -1;
+      } else {
+        failure[j - k] = i + 1;
+      }
+    }
+    return k % n;
+  }
+
+  /** Tests whether two lists of the same size match from the given offsets. */
+  @SuppressWarnings("unchecked")
+  private static <E> boolean canonicalEquals(CircularlyLinkedList<E> a, int offsetA,
+                                             CircularlyLinkedList<E> b, int offsetB,
+                                             Comparator<? super E> order,
+                                             Object[] scratchA, Object[] scratchB) {
+    int n = a.size();
+    a.snapshot((E[]) scratchA);
+    b.snapshot((E[]) scratchB);
+    for (int j = 0; j < n; j++)
+      if (order.compare((E) scratchA[(offsetA + j) % n], (E) scratchB[(offsetB + j) % n]) != 0)
+        return false;
+    return true;
+  }
+
+  /** Spreads the bits of a hash for use as a table index. */
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    return h;
+  }
+}
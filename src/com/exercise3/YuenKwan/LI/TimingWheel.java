@@ -0,0 +1,303 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.exercise3.YuenKwan.LI;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel for scheduling large numbers of timeouts.
+ * Time advances in whole ticks, driven by the caller, so the wheel works
+ * the same against a simulated clock as against a real one.
+ *
+ * Each level of the wheel is a ring of slots held in a
+ * CircularlyLinkedList, whose first element is the slot for the current
+ * time; advancing a level is a rotate(). Level 0 has one slot per tick;
+ * each slot of level l spans slotsPerLevel^l ticks. A timeout is placed
+ * in the lowest level whose span reaches its deadline. When a level
+ * completes a revolution, the current slot of the next level up is
+ * emptied and its timeouts are placed again, cascading down the levels
+ * until they reach level 0 and expire.
+ *
+ * Each slot is a doubly linked bucket of timeouts, so schedule and cancel
+ * run in O(1) time, and a tick detaches a whole slot in one step.
+ *
+ * @param <E>  the type of the scheduled tasks
+ */
+public class TimingWheel<E> {
+
+  //---------------- nested Timeout class ----------------
+  /**
+   * A scheduled task: a handle returned by schedule that can be used to
+   * cancel it. It is also the node of the bucket holding it.
+   */
+  public static final class Timeout<E> {
+
+    /** The scheduled task */
+    private final E task;
+
+    /** The tick at which the task expires */
+    private final long deadline;
+
+    /** The bucket holding this timeout (null once expired or cancelled) */
+    private Bucket<E> bucket;
+
+    /** Neighbors in the bucket */
+    private Timeout<E> prev, next;
+
+    private Timeout(E task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Returns the scheduled task.
+     * @return the task
+     */
+    public E getTask() { return task; }
+
+    /**
+     * Returns the tick at which the task expires.
+     * @return the deadline
+     */
+    public long getDeadline() { return deadline; }
+
+    /**
+     * Tests whether the timeout has neither expired nor been cancelled.
+     * @return true if the timeout is still scheduled, false otherwise
+     */
+    public boolean isPending() { return bucket != null; }
+  } //----------- end of nested Timeout class -----------
+
+  //---------------- nested Bucket class ----------------
+  /**
+   * A slot of the wheel: a doubly linked list of timeouts between a
+   * header and a trailer sentinel.
+   */
+  private static final class Bucket<E> {
+
+    /** Sentinel nodes at the beginning and end of the bucket */
+    private final Timeout<E> header = new Timeout<>(null, 0), trailer = new Timeout<>(null, 0);
+
+    private Bucket() {
+      header.next = trailer;
+      trailer.prev = header;
+    }
+
+    /** Adds a timeout at the end of the bucket. */
+    private void add(Timeout<E> t) {
+      t.prev = trailer.prev;
+      t.next = trailer;
+      trailer.prev.next = t;
+      trailer.prev = t;
+      t.bucket = this;
+    }
+
+    /** Unlinks a timeout from the bucket. */
+    private void remove(Timeout<E> t) {
+      t.prev.next = t.next;
+      t.next.prev = t.prev;
+      t.prev = t.next = null;
+      t.bucket = null;
+    }
+
+    /**
+     * Detaches every timeout from the bucket at once.
+     * @return the first detached timeout, the rest following through
+     *         next until null (or null if the bucket was empty)
+     */
+    private Timeout<E> takeAll() {
+      if (header.next == trailer) return null;
+      Timeout<E> first = header.next;
+      trailer.prev.next = null;                 // terminate the detached chain
+      header.next = trailer;
+      trailer.prev = header;
+      return first;
+    }
+  } //----------- end of nested Bucket class -----------
+
+  // instance variables of the TimingWheel
+  /** log2 of the number of slots per level */
+  private final int bits;
+
+  /** Number of slots per level, less one */
+  private final int mask;
+
+  /** The slots of each level, by index */
+  private final Bucket<E>[][] slots;
+
+  /** The slots of each level as a ring whose first slot is the current one */
+  private final CircularlyLinkedList<Bucket<E>>[] rings;
+
+  /** The current tick */
+  private long now = 0;
+
+  /** Number of pending timeouts */
+  private int size = 0;
+
+  /**
+   * Constructs an empty wheel at tick 0. Timeouts further away than
+   * slotsPerLevel^levels ticks are placed again each time the top level
+   * completes a revolution.
+   * @param slotsPerLevel  the number of slots in each level (a power of two, at least 2)
+   * @param levels         the number of levels (at least 1)
+   * @throws IllegalArgumentException if either argument is out of range
+   */
+  public TimingWheel(int slotsPerLevel, int levels) {
+    if (slotsPerLevel < 2 || Integer.bitCount(slotsPerLevel) != 1)
+      throw new IllegalArgumentException("Slots per level must be a power of two: " + slotsPerLevel);
+    if (levels < 1 || (long) Integer.numberOfTrailingZeros(slotsPerLevel) * levels > 62)
+      throw new IllegalArgumentException("Invalid number of levels: " + levels);
+    bits = Integer.numberOfTrailingZeros(slotsPerLevel);
+    mask = slotsPerLevel - 1;
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Bucket<E>[][] buckets = (Bucket<E>[][]) new Bucket[levels][slotsPerLevel];
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    CircularlyLinkedList<Bucket<E>>[] wheels = (CircularlyLinkedList<Bucket<E>>[]) new CircularlyLinkedList[levels];
+    slots = buckets;
+    rings = wheels;
+    for (int level = 0; level < levels; level++) {
+      rings[level] = new CircularlyLinkedList<>(slotsPerLevel);
+      for (int s = 0; s < slotsPerLevel; s++) {
+        slots[level][s] = new Bucket<>();
+        rings[level].addLast(slots[level][s]);
+      }
+    }
+  }
+
+  // access methods
+  /**
+   * Returns the current tick.
+   * @return the current tick
+   */
+  public long now() { return now; }
+
+  /**
+   * Returns the number of pending timeouts.
+   * @return the number of pending timeouts
+   */
+  public int size() { return size; }
+
+  /**
+   * Tests whether no timeouts are pending.
+   * @return true if the wheel is empty, false otherwise
+   */
+  public boolean isEmpty() { return size == 0; }
+
+  // update methods
+  /**
+   * Schedules a task to expire the given number of ticks from now.
+   * @param task   the task
+   * @param delay  the number of ticks until it expires (at least 1)
+   * @return a handle for cancelling the task
+   * @throws IllegalArgumentException if delay is less than 1
+   */
+  public Timeout<E> schedule(E task, long delay) {
+    if (delay < 1) throw new IllegalArgumentException("Delay must be at least one tick: " + delay);
+    Timeout<E> t = new Timeout<>(task, now + delay);
+    place(t);
+    size++;
+    return t;
+  }
+
+  /**
+   * Cancels a pending timeout.
+   * @param t  a handle returned by schedule on this wheel
+   * @return true if the timeout was pending, false if it had already expired or been cancelled
+   */
+  public boolean cancel(Timeout<E> t) {
+    if (t.bucket == null) return false;
+    t.bucket.remove(t);
+    size--;
+    return true;
+  }
+
+  /**
+   * Advances the wheel by one tick, cascading higher levels as they come
+   * due, and expires every timeout whose deadline is the new tick.
+   * @param expired  receives the task of each expired timeout
+   * @return the number of timeouts that expired
+   */
+  public int tick(Consumer<? super E> expired) {
+    now++;
+    rings[0].rotate();
+    int top = 0;                                // highest level that advances with this tick
+    while (top + 1 < rings.length && (now & ((1L << (bits * (top + 1))) - 1)) == 0)
+      top++;
+    for (int level = top; level >= 1; level--) {
+      rings[level].rotate();
+      for (Timeout<E> t = rings[level].first().takeAll(), next; t != null; t = next) {
+        next = t.next;
+        t.bucket = null;
+        place(t);
+      }
+    }
+    int count = 0;
+    for (Timeout<E> t = rings[0].first().takeAll(), next; t != null; t = next) {
+      next = t.next;
+      t.prev = t.next = null;
+      t.bucket = null;
+      if (t.deadline > now) {                   // parked beyond the range of a one-level wheel
+        place(t);
+        continue;
+      }
+      size--;
+      count++;
+      expired.accept(t.task);
+    }
+    return count;
+  }
+
+  /**
+   * Advances the wheel by the given number of ticks.
+   * @param ticks    the number of ticks to advance
+   * @param expired  receives the task of each expired timeout
+   * @return the number of timeouts that expired
+   */
+  public int advance(long ticks, Consumer<? super E> expired) {
+    int count = 0;
+    for (long j = 0; j < ticks; j++)
+      count += tick(expired);
+    return count;
+  }
+
+  /**
+   * Puts a timeout in the slot of the lowest level whose span reaches
+   * its deadline.
+   */
+  private void place(Timeout<E> t) {
+    long delta = t.deadline - now;
+    if (delta <= 0) {                           // due now: expire with the current slot
+      slots[0][(int) (now & mask)].add(t);
+      return;
+    }
+    for (int level = 0; level < slots.length; level++) {
+      if (delta < 1L << (bits * (level + 1))) {
+        slots[level][(int) ((t.deadline >>> (bits * level)) & mask)].add(t);
+        return;
+      }
+    }
+    // beyond the range of the wheel: park in the top level's last slot of this revolution
+    int top = slots.length - 1;
+    slots[top][(int) (((now >>> (bits * top)) - 1) & mask)].add(t);
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.exercise3.YuenKwan.LI;
+
+/**
+ * A circularly linked list whose entries carry integer weights, with
+ * smooth weighted round-robin selection (as in nginx). Over any run of
+ * selections, each entry is chosen in proportion to its weight, and
+ * picks of a heavy entry are spread out rather than made in bursts.
+ * Weights can be changed at any time through the entry handles returned
+ * by the add methods.
+ */
+public class WeightedCircularlyLinkedList<E> {
+  //---------------- nested Entry class ----------------
+  /**
+   * Singly linked node, which stores a reference to its element, its
+   * weight, its running selection score, and the subsequent node in the
+   * list. Entries are handed out so that their weights can be adjusted.
+   */
+  public static class Entry<E> {
+
+    /** The element stored at this node */
+    private E element;         // an element stored at this node
+
+    /** The configured weight of this entry */
+    private int weight;        // configured weight (zero means never selected)
+
+    /** The running score used by smooth weighted round-robin */
+    private long current;      // grows by weight each round, drops by the total when selected
+
+    /** A reference to the subsequent node in the list (null once removed) */
+    private Entry<E> next;     // a reference to the subsequent node in the list
+
+    /**
+     * Creates a node with the given element, weight and next node.
+     *
+     * @param e  the element to be stored
+     * @param w  the weight of the entry
+     * @param n  reference to a node that should follow the new node
+     */
+    private Entry(E e, int w, Entry<E> n) {
+      element = e;
+      weight = w;
+      next = n;
+    }
+
+    /**
+     * Returns the element stored at the node.
+     * @return the element stored at the node
+     */
+    public E getElement() { return element; }
+
+    /**
+     * Returns the configured weight of the entry.
+     * @return the weight of the entry
+     */
+    public int getWeight() { return weight; }
+  } //----------- end of nested Entry class -----------
+
+  // instance variables of the WeightedCircularlyLinkedList
+  /** The designated cursor of the list */
+  private Entry<E> tail = null;                 // we store tail (but not head)
+
+  /** Number of nodes in the list */
+  private int size = 0;                         // number of nodes in the list
+
+  /** Sum of the weights of all entries */
+  private long totalWeight = 0;                 // sum of all entry weights
+
+  /** Constructs an initially empty list. */
+  public WeightedCircularlyLinkedList() { }
+
+  // access methods
+  /**
+   * Returns the number of elements in the linked list.
+   * @return number of elements in the linked list
+   */
+  public int size() { return size; }
+
+  /**
+   * Tests whether the linked list is empty.
+   * @return true if the linked list is empty, false otherwise
+   */
+  public boolean isEmpty() { return size == 0; }
+
+  /**
+   * Returns the sum of the weights of all entries.
+   * @return the total weight
+   */
+  public long totalWeight() { return totalWeight; }
+
+  /**
+   * Returns (but does not remove) the first element of the list
+   * @return element at the front of the list (or null if empty)
+   */
+  public E first() {
+    if (isEmpty()) return null;
+    return tail.next.getElement();              // the head is *after* the tail
+  }
+
+  /**
+   * Returns (but does not remove) the last element of the list
+   * @return element at the back of the list (or null if empty)
+   */
+  public E last() {
+    if (isEmpty()) return null;
+    return tail.getElement();
+  }
+
+  // update methods
+  /**
+   * Rotate the first element to the back of the list.
+   */
+  public void rotate() {
+    if (tail != null)                // if empty, do nothing
+      tail = tail.next;              // the old head becomes the new tail
+  }
+
+  /**
+   * Adds a weighted element to the front of the list.
+   * @param e       the new element to add
+   * @param weight  its weight (must not be negative)
+   * @return the entry holding the new element
+   * @throws IllegalArgumentException if weight is negative
+   */
+  public Entry<E> addFirst(E e, int weight) {
+    checkWeight(weight);
+    Entry<E> newest;
+    if (size == 0) {
+      newest = new Entry<>(e, weight, null);
+      newest.next = newest;                     // link to itself circularly
+      tail = newest;
+    } else {
+      newest = new Entry<>(e, weight, tail.next);
+      tail.next = newest;
+    }
+    size++;
+    totalWeight += weight;
+    return newest;
+  }
+
+  /**
+   * Adds a weighted element to the end of the list.
+   * @param e       the new element to add
+   * @param weight  its weight (must not be negative)
+   * @return the entry holding the new element
+   * @throws IllegalArgumentException if weight is negative
+   */
+  public Entry<E> addLast(E e, int weight) {
+    Entry<E> newest = addFirst(e, weight);      // insert new element at front of list
+    tail = newest;                              // now new element becomes the tail
+    return newest;
+  }
+
+  /**
+   * Removes and returns the first element of the list.
+   * @return the removed element (or null if empty)
+   */
+  public E removeFirst() {
+    if (isEmpty()) return null;                 // nothing to remove
+    Entry<E> head = tail.next;
+    release(head);                              // while head is still in the ring
+    if (head == tail) tail = null;              // must be the only node left
+    else tail.next = head.next;                 // removes "head" from the list
+    size--;
+    totalWeight -= head.weight;
+    head.next = null;                           // marks the entry as removed
+    return head.getElement();
+  }
+
+  /**
+   * Changes the weight of an entry of this list. The change takes effect
+   * from the next selection; the ring itself is left untouched. An entry
+   * whose weight drops to zero gives up its running score, so it is not
+   * selected again until its weight is raised.
+   * @param entry   an entry returned by addFirst or addLast on this list
+   * @param weight  the new weight (must not be negative)
+   * @throws IllegalArgumentException if weight is negative or the entry has been removed
+   */
+  public void setWeight(Entry<E> entry, int weight) {
+    checkWeight(weight);
+    if (entry.next == null) throw new IllegalArgumentException("Entry has been removed");
+    totalWeight += (long) weight - entry.weight;
+    entry.weight = weight;
+    if (weight == 0) release(entry);
+  }
+
+  /**
+   * Selects the next element by smooth weighted round-robin. Every entry's
+   * score grows by its weight; the entry with the highest score (the
+   * earliest in the list on a tie) is chosen and its score is lowered by
+   * the total weight. Entries of weight zero are never chosen. This takes
+   * one lap of the list.
+   * @return the selected element (or null if the list is empty or all weights are zero)
+   */
+  public E next() {
+    if (totalWeight == 0) return null;
+    Entry<E> best = null;
+    Entry<E> walk = tail;
+    do {
+      walk = walk.next;
+      if (walk.weight == 0) continue;           // never selected
+      walk.current += walk.weight;
+      if (best == null || walk.current > best.current)
+        best = walk;
+    } while (walk != tail);
+    best.current -= totalWeight;
+    return best.getElement();
+  }
+
+  /**
+   * Clears the running score of an entry that is leaving the rotation and
+   * hands it to the next entry of positive weight, so the scores of the
+   * entries still in the rotation keep summing to zero.
+   * @param entry  an entry of the ring that is leaving the rotation
+   */
+  private void release(Entry<E> entry) {
+    long score = entry.current;
+    entry.current = 0;
+    if (score == 0) return;
+    Entry<E> walk = entry.next;
+    while (walk != entry && walk.weight == 0)
+      walk = walk.next;
+    if (walk != entry) walk.current += score;
+  }
+
+  /** Rejects negative weights. */
+  private static void checkWeight(int weight) {
+    if (weight < 0) throw new IllegalArgumentException("Negative weight: " + weight);
+  }
+
+  /**
+   * Produces a string representation of the contents of the list,
+   * giving each element with its weight. This exists for debugging
+   * purposes only.
+   */
+  public String toString() {
+    if (tail == null) return "()";
+    StringBuilder sb = new StringBuilder("(");
+    Entry<E> walk = tail;
+    do {
+      walk = walk.next;
+      sb.append(walk.getElement()).append('=').append(walk.weight);
+      if (walk != tail)
+        sb.append(", ");
+    } while (walk != tail);
+    sb.append(")");
+    return sb.toString();
+  }
+}
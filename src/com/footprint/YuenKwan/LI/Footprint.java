@@ -0,0 +1,207 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.footprint.YuenKwan.LI;
+
+import java.lang.management.ManagementFactory;
+import java.util.IdentityHashMap;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * An estimate of the heap retained by a linked list, split into the
+ * nodes (or arrays) that link its elements, any arrays of element
+ * references kept apart from the links, the element objects themselves,
+ * and the sentinel nodes. Sizes follow the running HotSpot VM's object
+ * layout (compressed references and class pointers, and the object
+ * alignment), read from its diagnostic options when available and
+ * otherwise assumed to be the 64-bit defaults.
+ *
+ * Element sizes are exact for boxed primitives and Strings (including
+ * their byte arrays); any other element is counted as a bare object
+ * header, so the estimate is a lower bound for them. Each element
+ * object is counted once however often it occurs.
+ */
+public final class Footprint {
+  /** Bytes in a reference field */
+  public static final int REFERENCE;
+
+  /** Bytes in an object header */
+  public static final int HEADER;
+
+  /** Object sizes are rounded up to a multiple of this */
+  public static final int ALIGNMENT;
+
+  static {
+    boolean compressedOops = true, compressedClasses = true;
+    int alignment = 8;
+    try {
+      HotSpotDiagnosticMXBean vm = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+      compressedOops = Boolean.parseBoolean(vm.getVMOption("UseCompressedOops").getValue());
+      compressedClasses = Boolean.parseBoolean(vm.getVMOption("UseCompressedClassPointers").getValue());
+      alignment = Integer.parseInt(vm.getVMOption("ObjectAlignmentInBytes").getValue());
+    } catch (RuntimeException | LinkageError e) {
+      // not a HotSpot VM: keep the defaults
+    }
+    REFERENCE = compressedOops ? 4 : 8;
+    HEADER = compressedClasses ? 12 : 16;
+    ALIGNMENT = alignment;
+  }
+
+  /**
+   * Returns the size of an object with the given fields.
+   * @param references      number of reference fields
+   * @param primitiveBytes  total bytes of primitive fields
+   * @return the aligned size in bytes
+   */
+  public static long objectSize(int references, int primitiveBytes) {
+    return align(HEADER + (long) references * REFERENCE + primitiveBytes);
+  }
+
+  /**
+   * Returns the size of an array.
+   * @param elementBytes  bytes per array element
+   * @param length        number of array elements
+   * @return the aligned size in bytes
+   */
+  public static long arraySize(int elementBytes, int length) {
+    return align(HEADER + 4 + (long) elementBytes * length);
+  }
+
+  /** Rounds a size up to the object alignment. */
+  private static long align(long bytes) {
+    return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+  }
+
+  /**
+   * Returns the estimated size of one element object.
+   * @param e  the element (may be null)
+   * @return its size in bytes (0 for null)
+   */
+  public static long elementSize(Object e) {
+    if (e == null) return 0;
+    if (e instanceof Integer || e instanceof Float) return objectSize(0, 4);
+    if (e instanceof Long || e instanceof Double) return objectSize(0, 8);
+    if (e instanceof Short || e instanceof Character) return objectSize(0, 2);
+    if (e instanceof Byte || e instanceof Boolean) return objectSize(0, 1);
+    if (e instanceof String) {
+      String s = (String) e;
+      boolean latin1 = true;
+      for (int j = 0; j < s.length() && latin1; j++)
+        latin1 = s.charAt(j) < 256;
+      // value array, int hash, byte coder and boolean hashIsZero
+      return objectSize(1, 6) + arraySize(1, latin1 ? s.length() : 2 * s.length());
+    }
+    return objectSize(0, 0);
+  }
+
+  //---------------- nested Elements class ----------------
+  /**
+   * Accumulates the sizes of distinct element objects.
+   */
+  public static final class Elements {
+    private final IdentityHashMap<Object, Boolean> seen = new IdentityHashMap<>();
+    private long bytes = 0;
+
+    /**
+     * Adds an element, unless the same object was already added.
+     * @param e  the element
+     */
+    public void add(Object e) {
+      if (e != null && seen.put(e, Boolean.TRUE) == null) bytes += elementSize(e);
+    }
+
+    /**
+     * Returns the total size of the distinct elements added.
+     * @return the size in bytes
+     */
+    public long bytes() { return bytes; }
+  } //----------- end of nested Elements class -----------
+
+  // instance variables of the Footprint
+  private final long links;
+  private final long slots;
+  private final long elements;
+  private final long sentinels;
+
+  /**
+   * Creates a footprint report for a list whose nodes hold the element
+   * references.
+   * @param links      bytes of the nodes holding elements (and spare nodes)
+   * @param elements   bytes of the distinct element objects
+   * @param sentinels  bytes of the sentinel nodes
+   */
+  public Footprint(long links, long elements, long sentinels) {
+    this(links, 0, elements, sentinels);
+  }
+
+  /**
+   * Creates a footprint report for a list that keeps its element
+   * references apart from its links.
+   * @param links      bytes of the links
+   * @param slots      bytes of the element references
+   * @param elements   bytes of the distinct element objects
+   * @param sentinels  bytes of the sentinels
+   */
+  public Footprint(long links, long slots, long elements, long sentinels) {
+    this.links = links;
+    this.slots = slots;
+    this.elements = elements;
+    this.sentinels = sentinels;
+  }
+
+  /**
+   * Returns the bytes of the nodes holding elements, and of any spare nodes.
+   * @return the size in bytes
+   */
+  public long getLinks() { return links; }
+
+  /**
+   * Returns the bytes of element references kept apart from the links
+   * (0 if the nodes hold them).
+   * @return the size in bytes
+   */
+  public long getSlots() { return slots; }
+
+  /**
+   * Returns the bytes of the distinct element objects.
+   * @return the size in bytes
+   */
+  public long getElements() { return elements; }
+
+  /**
+   * Returns the bytes of the sentinel nodes.
+   * @return the size in bytes
+   */
+  public long getSentinels() { return sentinels; }
+
+  /**
+   * Returns the total estimated bytes.
+   * @return the sum of links, slots, elements and sentinels
+   */
+  public long getTotal() { return links + slots + elements + sentinels; }
+
+  public String toString() {
+    return "links=" + links + (slots > 0 ? ", slots=" + slots : "") + ", elements=" + elements
+        + ", sentinels=" + sentinels + ", total=" + getTotal();
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.journal.YuenKwan.LI;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Converts list elements to and from the compact binary form stored in an
+ * OperationLog.
+ *
+ * @param <E>  the type of the elements
+ */
+public interface ElementCodec<E> {
+
+  /** Codec for String elements, stored in modified UTF-8 */
+  ElementCodec<String> STRINGS = new ElementCodec<String>() {
+    public void write(String e, DataOutput out) throws IOException { out.writeUTF(e); }
+    public String read(DataInput in) throws IOException { return in.readUTF(); }
+  };
+
+  /** Codec for Integer elements, stored as four bytes */
+  ElementCodec<Integer> INTEGERS = new ElementCodec<Integer>() {
+    public void write(Integer e, DataOutput out) throws IOException { out.writeInt(e); }
+    public Integer read(DataInput in) throws IOException { return in.readInt(); }
+  };
+
+  /**
+   * Writes an element.
+   * @param e    the element to write
+   * @param out  the destination
+   * @throws IOException if the element cannot be written
+   */
+  void write(E e, DataOutput out) throws IOException;
+
+  /**
+   * Reads an element written by write.
+   * @param in  the source
+   * @return the element read
+   * @throws IOException if the element cannot be read
+   */
+  E read(DataInput in) throws IOException;
+}
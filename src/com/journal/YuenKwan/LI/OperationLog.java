@@ -0,0 +1,529 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.journal.YuenKwan.LI;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only write-ahead log of list mutations, so that the contents
+ * of a list can be rebuilt after a crash.
+ *
+ * Each mutation is encoded as a record holding its length, an operation
+ * code, its arguments, and a CRC-32 checksum. Records are buffered and
+ * written in groups (group commit): the buffer is written once it holds
+ * groupSize records, or when commit() is called. Whether each group write
+ * is also forced to the storage device is set by the SyncPolicy.
+ *
+ * On recovery, replay applies the records in order to a Target. A torn
+ * write can only damage the end of the log, so an incomplete or corrupt
+ * record with nothing intact after it is cut off. A bad record followed by
+ * intact ones is damage in the middle of the log: replay reports it
+ * rather than silently dropping the records after it. A checkpoint
+ * replaces the whole log with a single record holding the current
+ * contents of the list.
+ *
+ * @param <E>  the type of the list elements
+ */
+public class OperationLog<E> implements Closeable {
+
+  //---------------- nested SyncPolicy enum ----------------
+  /** When group writes are forced to the storage device. */
+  public enum SyncPolicy {
+    /** Force after every group write; a committed group survives a crash. */
+    ON_COMMIT,
+    /** Force only at checkpoint and close; the operating system decides otherwise. */
+    ON_CLOSE
+  } //----------- end of nested SyncPolicy enum -----------
+
+  //---------------- nested Target interface ----------------
+  /**
+   * The list that replayed records are applied to. A list implements every
+   * operation; one that the list never records throws the exception made
+   * by unsupported, which fails the replay.
+   */
+  public interface Target<E> {
+    /** Applies addFirst(e). */
+    void addFirst(E e) throws IOException;
+
+    /** Applies addLast(e). */
+    void addLast(E e) throws IOException;
+
+    /** Applies removeFirst(). */
+    E removeFirst() throws IOException;
+
+    /** Applies removeLast(). */
+    E removeLast() throws IOException;
+
+    /** Swaps the elements at positions i and j. */
+    void swap(int i, int j) throws IOException;
+
+    /** Moves the element at position from so that it ends up at position to. */
+    void move(int from, int to) throws IOException;
+
+    /** Applies applyPermutation(newOrder). */
+    void permute(int[] newOrder) throws IOException;
+
+    /** Applies rotate(). */
+    void rotate() throws IOException;
+
+    /** Applies removeEvery(k). */
+    void removeEvery(int k) throws IOException;
+  } //----------- end of nested Target interface -----------
+
+  /**
+   * Returns the exception a Target throws for a record its list never writes.
+   * @param operation  the name of the operation
+   */
+  public static IOException unsupported(String operation) {
+    return new IOException("Record not supported by this list: " + operation);
+  }
+
+  // operation codes
+  private static final byte ADD_FIRST = 1;
+  private static final byte ADD_LAST = 2;
+  private static final byte REMOVE_FIRST = 3;
+  private static final byte REMOVE_LAST = 4;
+  private static final byte SWAP = 5;
+  private static final byte PERMUTE = 6;
+  private static final byte APPEND_ALL = 7;
+  private static final byte ROTATE = 8;
+  private static final byte REMOVE_EVERY = 9;
+  private static final byte SNAPSHOT = 10;
+  private static final byte MOVE = 11;
+  private static final byte PREPEND_ALL = 12;
+  private static final byte REMOVE_FIRST_RUN = 13;
+
+  /** Bytes of framing around each record body: length and checksum */
+  private static final int FRAMING = 8;
+
+  // instance variables of the OperationLog
+  /** The log file */
+  private final Path path;
+
+  /** Converts elements to and from bytes */
+  private final ElementCodec<E> codec;
+
+  /** When group writes are forced */
+  private final SyncPolicy policy;
+
+  /** Number of records written together */
+  private final int groupSize;
+
+  /** The open log file, positioned at its end */
+  private FileChannel channel;
+
+  /** Records not yet written to the file */
+  private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+  /** Number of records in pending */
+  private int pendingCount = 0;
+
+  /** Body of the record being built */
+  private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+  /** Writes to body */
+  private final DataOutputStream bodyOut = new DataOutputStream(body);
+
+  /** Checksum of record bodies */
+  private final CRC32 crc = new CRC32();
+
+  /** The failure that made the log unusable, or null if it is usable */
+  private IOException failure = null;
+
+  /**
+   * Opens (or creates) a log file. Call replay before recording any new
+   * mutations, so that a torn tail left by a crash is cut off first.
+   *
+   * @param path       the log file
+   * @param codec      converts elements to and from bytes
+   * @param policy     when group writes are forced to the storage device
+   * @param groupSize  the number of records written together (at least 1)
+   * @throws IOException if the file cannot be opened
+   * @throws IllegalArgumentException if groupSize is less than 1
+   */
+  public OperationLog(Path path, ElementCodec<E> codec, SyncPolicy policy, int groupSize)
+      throws IOException {
+    if (groupSize < 1) throw new IllegalArgumentException("Group size must be positive: " + groupSize);
+    this.path = path;
+    this.codec = codec;
+    this.policy = policy;
+    this.groupSize = groupSize;
+    channel = open(path);
+  }
+
+  private static FileChannel open(Path path) throws IOException {
+    FileChannel c = FileChannel.open(path, StandardOpenOption.CREATE,
+                                     StandardOpenOption.READ, StandardOpenOption.WRITE);
+    c.position(c.size());
+    return c;
+  }
+
+  // recording methods
+  /** Records addFirst(e). */
+  public void addFirst(E e) throws IOException {
+    begin(ADD_FIRST);
+    codec.write(e, bodyOut);
+    end();
+  }
+
+  /** Records addLast(e). */
+  public void addLast(E e) throws IOException {
+    begin(ADD_LAST);
+    codec.write(e, bodyOut);
+    end();
+  }
+
+  /** Records removeFirst(). */
+  public void removeFirst() throws IOException {
+    begin(REMOVE_FIRST);
+    end();
+  }
+
+  /** Records removeLast(). */
+  public void removeLast() throws IOException {
+    begin(REMOVE_LAST);
+    end();
+  }
+
+  /** Records a swap of the elements at positions i and j. */
+  public void swap(int i, int j) throws IOException {
+    begin(SWAP);
+    bodyOut.writeInt(i);
+    bodyOut.writeInt(j);
+    end();
+  }
+
+  /** Records a move of the element at position from to position to. */
+  public void move(int from, int to) throws IOException {
+    begin(MOVE);
+    bodyOut.writeInt(from);
+    bodyOut.writeInt(to);
+    end();
+  }
+
+  /** Records applyPermutation(newOrder). */
+  public void permute(int[] newOrder) throws IOException {
+    begin(PERMUTE);
+    bodyOut.writeInt(newOrder.length);
+    for (int k : newOrder) bodyOut.writeInt(k);
+    end();
+  }
+
+  /** Records the addition of the given elements, in order, at the end of the list. */
+  public void appendAll(Iterable<? extends E> elements) throws IOException {
+    begin(APPEND_ALL);
+    writeAll(elements);
+    end();
+  }
+
+  /** Records the addition of the given elements, in order, at the front of the list. */
+  public void prependAll(Iterable<? extends E> elements) throws IOException {
+    begin(PREPEND_ALL);
+    writeAll(elements);
+    end();
+  }
+
+  /** Records the removal of the first count elements. */
+  public void removeFirst(int count) throws IOException {
+    begin(REMOVE_FIRST_RUN);
+    bodyOut.writeInt(count);
+    end();
+  }
+
+  /** Records rotate(). */
+  public void rotate() throws IOException {
+    begin(ROTATE);
+    end();
+  }
+
+  /** Records removeEvery(k). */
+  public void removeEvery(int k) throws IOException {
+    begin(REMOVE_EVERY);
+    bodyOut.writeInt(k);
+    end();
+  }
+
+  /** Starts a record with the given operation code. */
+  private void begin(byte op) throws IOException {
+    checkUsable();
+    body.reset();
+    bodyOut.writeByte(op);
+  }
+
+  /** Frames the record being built and adds it to the pending group. */
+  private void end() throws IOException {
+    frame(pending);
+    if (++pendingCount >= groupSize) commit();
+  }
+
+  /** Writes the record being built, with its length and checksum, to out. */
+  private void frame(ByteArrayOutputStream out) throws IOException {
+    bodyOut.flush();
+    byte[] bytes = body.toByteArray();
+    crc.reset();
+    crc.update(bytes);
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(bytes.length);
+    data.write(bytes);
+    data.writeInt((int) crc.getValue());
+    data.flush();
+  }
+
+  /** Writes the element count followed by each element. */
+  private void writeAll(Iterable<? extends E> elements) throws IOException {
+    int count = 0;
+    for (E e : elements) count++;
+    bodyOut.writeInt(count);
+    for (E e : elements) codec.write(e, bodyOut);
+  }
+
+  /**
+   * Writes all pending records to the file, forcing them to the storage
+   * device if the policy is ON_COMMIT.
+   *
+   * If the write or the force fails, the group is dropped and cut off the
+   * file, and the log becomes unusable: the list has already made the
+   * mutations in the group, so any later record would be replayed against
+   * the wrong contents. Every later call then fails, except close and
+   * checkpoint, which rewrites the log from the list and makes it usable
+   * again.
+   *
+   * @throws IOException if the records cannot be written, or the log is unusable
+   */
+  public void commit() throws IOException {
+    checkUsable();
+    if (pendingCount == 0) return;
+    long start = channel.position();
+    ByteBuffer buffer = ByteBuffer.wrap(pending.toByteArray());
+    pending.reset();
+    pendingCount = 0;
+    try {
+      write(buffer);
+      if (policy == SyncPolicy.ON_COMMIT) channel.force(false);
+    } catch (IOException e) {
+      failure = e;
+      try {
+        channel.truncate(start);
+        channel.position(start);
+      } catch (IOException suppressed) {
+        e.addSuppressed(suppressed);            // replay cuts off the torn group
+      }
+      throw e;
+    }
+  }
+
+  /** Writes the whole buffer at the current position of the log file. */
+  void write(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) channel.write(buffer);
+  }
+
+  /** Throws if a failed write has made the log unusable. */
+  private void checkUsable() throws IOException {
+    if (failure != null)
+      throw new IOException("Log is unusable after a failed write; checkpoint to recover", failure);
+  }
+
+  /**
+   * Replaces the whole log with one record holding the given contents,
+   * discarding all earlier records. The new log is written to a temporary
+   * file and forced before it atomically replaces the old one, so a crash
+   * leaves either the old log or the new one. A checkpoint also makes a
+   * log that is unusable after a failed write usable again.
+   *
+   * @param contents  the current elements of the list, in order
+   * @throws IOException if the checkpoint cannot be written
+   */
+  public void checkpoint(Iterable<? extends E> contents) throws IOException {
+    if (failure == null) commit();              // the old log stays complete
+    body.reset();
+    bodyOut.writeByte(SNAPSHOT);
+    writeAll(contents);
+    ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+    frame(snapshot);
+    Path temp = path.resolveSibling(path.getFileName() + ".checkpoint");
+    try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer buffer = ByteBuffer.wrap(snapshot.toByteArray());
+      while (buffer.hasRemaining()) out.write(buffer);
+      out.force(true);
+    }
+    channel.close();
+    Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    channel = open(path);
+    failure = null;
+  }
+
+  /**
+   * Applies every complete record in the log to the target, in order,
+   * and truncates the log after the last one. The target should be empty.
+   * If a bad record is followed by an intact one, the records before the
+   * bad one have been applied when the IOException is thrown, and the log
+   * is left as it is.
+   *
+   * @param target  the list to rebuild
+   * @return the number of records applied
+   * @throws IOException if the log cannot be read, is corrupt before its end,
+   *                     or holds a record the target does not support
+   */
+  public int replay(Target<E> target) throws IOException {
+    commit();
+    channel.position(0);
+    long valid = 0;                             // end of the last complete record
+    int applied = 0;
+    InputStream raw = Channels.newInputStream(channel);
+    DataInputStream in = new DataInputStream(new BufferedInputStream(raw));
+    long size = channel.size();
+    while (valid < size) {
+      byte[] bytes = readRecord(in, size - valid);
+      if (bytes == null) {                      // torn or corrupt
+        long intact = findIntactRecord(valid + 1, size);
+        if (intact >= 0)
+          throw new IOException("Corrupt record at offset " + valid
+                                + " followed by an intact record at offset " + intact);
+        break;                                  // torn write at the end
+      }
+      apply(bytes, target);
+      valid += bytes.length + FRAMING;
+      applied++;
+    }
+    channel.truncate(valid);
+    channel.position(valid);
+    return applied;
+  }
+
+  /**
+   * Reads the next record and returns its body, or null if the record is
+   * incomplete or fails its checksum.
+   * @param in         the log, positioned at the start of a record
+   * @param remaining  the number of bytes from there to the end of the log
+   */
+  private byte[] readRecord(DataInputStream in, long remaining) throws IOException {
+    if (remaining < FRAMING) return null;
+    int length = in.readInt();
+    if (length < 1 || length > remaining - FRAMING) return null;
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    crc.reset();
+    crc.update(bytes);
+    return in.readInt() == (int) crc.getValue() ? bytes : null;
+  }
+
+  /**
+   * Returns the offset of the first intact record that starts at or after
+   * the given offset, or -1 if there is none. Every offset is tried, since
+   * the length of a bad record cannot be trusted; this only runs when a
+   * bad record has been found.
+   * @param from  the first offset to try
+   * @param size  the size of the log
+   */
+  private long findIntactRecord(long from, long size) throws IOException {
+    if (size - from < FRAMING) return -1;
+    ByteBuffer rest = ByteBuffer.allocate((int) Math.min(size - from, Integer.MAX_VALUE - 8));
+    while (rest.hasRemaining())
+      if (channel.read(rest, from + rest.position()) < 0) break;
+    rest.flip();
+    byte[] bytes = rest.array();
+    int limit = rest.limit();
+    for (int offset = 0; offset + FRAMING <= limit; offset++) {
+      int length = rest.getInt(offset);
+      if (length < 1 || length > limit - offset - FRAMING) continue;
+      crc.reset();
+      crc.update(bytes, offset + 4, length);
+      if (rest.getInt(offset + 4 + length) == (int) crc.getValue()) return from + offset;
+    }
+    return -1;
+  }
+
+  /** Decodes one record body and applies it to the target. */
+  private void apply(byte[] bytes, Target<E> target) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+    byte op = in.readByte();
+    switch (op) {
+      case ADD_FIRST: target.addFirst(codec.read(in)); break;
+      case ADD_LAST: target.addLast(codec.read(in)); break;
+      case REMOVE_FIRST: target.removeFirst(); break;
+      case REMOVE_LAST: target.removeLast(); break;
+      case SWAP: target.swap(in.readInt(), in.readInt()); break;
+      case MOVE: target.move(in.readInt(), in.readInt()); break;
+      case PERMUTE: {
+        int[] order = new int[in.readInt()];
+        for (int k = 0; k < order.length; k++) order[k] = in.readInt();
+        target.permute(order);
+        break;
+      }
+      case APPEND_ALL:
+      case SNAPSHOT: {
+        for (int count = in.readInt(); count > 0; count--)
+          target.addLast(codec.read(in));
+        break;
+      }
+      case PREPEND_ALL: {
+        List<E> elements = new ArrayList<>();
+        for (int count = in.readInt(); count > 0; count--)
+          elements.add(codec.read(in));
+        for (int k = elements.size() - 1; k >= 0; k--)
+          target.addFirst(elements.get(k));
+        break;
+      }
+      case REMOVE_FIRST_RUN: {
+        for (int count = in.readInt(); count > 0; count--)
+          target.removeFirst();
+        break;
+      }
+      case ROTATE: target.rotate(); break;
+      case REMOVE_EVERY: target.removeEvery(in.readInt()); break;
+      default: throw new IOException("Unknown operation code: " + op);
+    }
+  }
+
+  /**
+   * Writes any pending records, forces the log to the storage device and
+   * closes it.
+   * @throws IOException if the log cannot be written or closed
+   */
+  public void close() throws IOException {
+    try {
+      commit();
+      channel.force(false);
+    } finally {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.symbols.YuenKwan.LI;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A dictionary assigning dense int codes (0, 1, 2, ...) to distinct
+ * strings, so that lists of low-cardinality strings can store a code per
+ * element instead of a reference, and every occurrence of a string shares
+ * the single instance kept here. A table can be shared by any number of
+ * lists and threads: lookups in either direction never lock, and only
+ * interning a string the table has not seen before synchronizes.
+ * Codes are never reused or removed.
+ */
+public final class SymbolTable {
+  /** Code of each interned string */
+  private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+
+  /** Interned strings, indexed by code; replaced when it grows */
+  private volatile String[] symbols = new String[16];
+
+  /** Number of interned strings, written after the string it counts */
+  private volatile int size = 0;
+
+  /**
+   * Returns the number of distinct strings in the table.
+   * @return the number of codes assigned
+   */
+  public int size() { return size; }
+
+  /**
+   * Returns the code of a string, assigning the next code if the string
+   * has not been seen before.
+   * @param s  the string to encode
+   * @return the code of s
+   * @throws IllegalArgumentException if s is null
+   */
+  public int intern(String s) {
+    if (s == null) throw new IllegalArgumentException("Null cannot be encoded");
+    Integer code = codes.get(s);
+    if (code != null) return code;
+    synchronized (this) {
+      code = codes.get(s);                       // another thread may have won
+      if (code != null) return code;
+      int n = size;
+      String[] a = symbols;
+      if (n == a.length) a = Arrays.copyOf(a, 2 * n);
+      a[n] = s;
+      symbols = a;
+      size = n + 1;                              // publishes a[n] to symbol()
+      codes.put(s, n);                           // only now can other threads get the code
+      return n;
+    }
+  }
+
+  /**
+   * Returns the code of a string without interning it.
+   * @param s  the string to look up
+   * @return the code of s (or -1 if s is null or not in the table)
+   */
+  public int code(String s) {
+    if (s == null) return -1;
+    Integer code = codes.get(s);
+    return code == null ? -1 : code;
+  }
+
+  /**
+   * Returns the string with the given code.
+   * @param code  a code returned by intern
+   * @return the interned string
+   * @throws IndexOutOfBoundsException if no string has that code
+   */
+  public String symbol(int code) {
+    int n = size;                                // read the count first, then the array
+    if (code < 0 || code >= n) throw new IndexOutOfBoundsException("Invalid code: " + code);
+    return symbols[code];
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.workload.YuenKwan.LI;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of latencies in nanoseconds with log-linear buckets: values
+ * below 128 are counted exactly, and every larger power-of-two range is
+ * split into 64 equal buckets, so any recorded value is reported with a
+ * relative error below 1/64. The bucket array has a fixed size and
+ * recording never allocates. A histogram is not thread-safe; each thread
+ * records into its own and the results are combined with add.
+ */
+public class LatencyHistogram {
+  /** Number of bits of each value kept exactly */
+  private static final int SUB_BUCKET_BITS = 7;
+
+  /** Values below this are counted in their own bucket */
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  /** Number of buckets per power-of-two range above SUB_BUCKETS */
+  private static final int HALF = SUB_BUCKETS / 2;
+
+  /** Counts per bucket */
+  private final long[] counts = new long[HALF * (64 - SUB_BUCKET_BITS + 1)];
+
+  /** Number of recorded values */
+  private long count = 0;
+
+  /** Sum of the recorded values */
+  private long sum = 0;
+
+  /** Largest recorded value */
+  private long max = 0;
+
+  /**
+   * Records one latency.
+   * @param nanos  the latency in nanoseconds (negative values count as 0)
+   */
+  public void record(long nanos) {
+    if (nanos < 0) nanos = 0;
+    counts[indexOf(nanos)]++;
+    count++;
+    sum += nanos;
+    if (nanos > max) max = nanos;
+  }
+
+  /**
+   * Adds all values recorded by another histogram to this one.
+   * @param other  the histogram to add
+   */
+  public void add(LatencyHistogram other) {
+    for (int j = 0; j < counts.length; j++)
+      counts[j] += other.counts[j];
+    count += other.count;
+    sum += other.sum;
+    max = Math.max(max, other.max);
+  }
+
+  /** Discards all recorded values. */
+  public void reset() {
+    Arrays.fill(counts, 0);
+    count = sum = max = 0;
+  }
+
+  /**
+   * Returns the number of recorded values.
+   * @return the number of values
+   */
+  public long count() { return count; }
+
+  /**
+   * Returns the largest recorded value.
+   * @return the maximum (0 if none was recorded)
+   */
+  public long max() { return max; }
+
+  /**
+   * Returns the mean of the recorded values.
+   * @return the mean (0 if none was recorded)
+   */
+  public double mean() { return count == 0 ? 0 : (double) sum / count; }
+
+  /**
+   * Returns the value at the given quantile: the smallest bucket bound
+   * such that at least that fraction of the recorded values lie at or
+   * below it.
+   * @param q  the quantile, between 0 and 1 (e.g. 0.999 for p99.9)
+   * @return the value at the quantile (0 if none was recorded)
+   */
+  public long percentile(double q) {
+    if (count == 0) return 0;
+    long rank = Math.max(1, (long) Math.ceil(q * count));
+    long seen = 0;
+    for (int j = 0; j < counts.length; j++) {
+      seen += counts[j];
+      if (seen >= rank) return Math.min(highestEquivalent(j), max);
+    }
+    return max;
+  }
+
+  /** Returns the bucket holding the given non-negative value. */
+  static int indexOf(long v) {
+    if (v < SUB_BUCKETS) return (int) v;
+    int shift = 63 - Long.numberOfLeadingZeros(v) - (SUB_BUCKET_BITS - 1);  // v >>> shift is in [64, 128)
+    return HALF * (shift + 1) + (int) (v >>> shift) - HALF;
+  }
+
+  /** Returns the largest value counted in the given bucket. */
+  static long highestEquivalent(int index) {
+    if (index < SUB_BUCKETS) return index;
+    int shift = index / HALF - 1;
+    long mantissa = index % HALF + HALF;
+    return ((mantissa + 1) << shift) - 1;
+  }
+}
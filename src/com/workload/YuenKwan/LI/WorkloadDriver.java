@@ -0,0 +1,465 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.workload.YuenKwan.LI;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import com.exercise1.YuenKwan.LI.PreparedSwap;
+import com.exercise3.YuenKwan.LI.CircularlyLinkedList;
+
+/**
+ * A command-line load generator for the list classes. Each worker thread
+ * owns its own lists (none of them are thread-safe) and repeatedly draws
+ * an operation from a weighted mix, timing every call. After a warm-up
+ * period the driver measures for a fixed duration and prints a JSON
+ * report with throughput, latency percentiles per operation, the
+ * garbage collection and allocation observed while measuring, and a
+ * checksum of the operations' results.
+ *
+ * Options, each given as --name=value:
+ *   mix           weighted operations, e.g. addFirst:30,removeLast:30,swap:5
+ *                 (addFirst, addLast, removeFirst, removeLast, swap,
+ *                 concatenate, rotate, equivalence; default: end operations only)
+ *   distribution  element values: uniform, sequential or zipf:EXPONENT (default uniform)
+ *   range         number of distinct element values (default: size)
+ *   size          initial number of elements in each list (default 1024)
+ *   batch         elements per source list for concatenate (default 8)
+ *   threads       number of worker threads (default 1)
+ *   warmup        warm-up time in seconds (default 2)
+ *   duration      measurement time in seconds (default 10)
+ *   seed          random seed (default 42)
+ *   output        file to write the report to (default: standard output)
+ *
+ * Latencies include the cost of reading the clock twice, roughly 20-40ns
+ * on current hardware, which dominates the cheapest operations.
+ */
+public class WorkloadDriver {
+  //---------------- nested Operation enum ----------------
+  /** The operations a workload can mix. */
+  enum Operation {
+    ADD_FIRST("addFirst"), ADD_LAST("addLast"), REMOVE_FIRST("removeFirst"),
+    REMOVE_LAST("removeLast"), SWAP("swap"), CONCATENATE("concatenate"),
+    ROTATE("rotate"), EQUIVALENCE("equivalence");
+
+    /** Name used on the command line and in the report */
+    final String label;
+
+    Operation(String label) { this.label = label; }
+
+    /** Returns the operation with the given label. */
+    static Operation of(String label) {
+      for (Operation op : values())
+        if (op.label.equals(label)) return op;
+      throw new IllegalArgumentException("Unknown operation: " + label);
+    }
+  } //----------- end of nested Operation enum -----------
+
+  //---------------- nested Distribution interface ----------------
+  /** A source of element values, shared by all workers. */
+  interface Distribution {
+    /**
+     * Draws the next value.
+     * @param random  the calling worker's generator
+     * @param worker  the calling worker's state, for stateful distributions
+     * @return a value between 0 and range - 1
+     */
+    int next(SplittableRandom random, Worker worker);
+
+    /**
+     * Parses a distribution given as uniform, sequential or zipf:EXPONENT.
+     * @throws IllegalArgumentException if the specification is not recognized
+     */
+    static Distribution parse(String spec, int range) {
+      if (spec.equals("uniform")) return (random, worker) -> random.nextInt(range);
+      if (spec.equals("sequential")) return (random, worker) -> worker.sequence++ % range;
+      if (spec.startsWith("zipf:")) {
+        double exponent = Double.parseDouble(spec.substring(5));
+        double[] cdf = new double[range];       // value v has weight 1/(v+1)^exponent
+        double total = 0;
+        for (int v = 0; v < range; v++) {
+          total += 1 / Math.pow(v + 1, exponent);
+          cdf[v] = total;
+        }
+        double scale = total;
+        return (random, worker) -> {
+          int v = Arrays.binarySearch(cdf, random.nextDouble() * scale);
+          return Math.min(v < 0 ? -v - 1 : v, range - 1);
+        };
+      }
+      throw new IllegalArgumentException("Unknown distribution: " + spec);
+    }
+  } //----------- end of nested Distribution interface -----------
+
+  //---------------- nested Worker class ----------------
+  /** A thread's lists, generator and histograms. */
+  static final class Worker implements Runnable {
+    private final WorkloadDriver driver;
+    private final SplittableRandom random;
+
+    /** Target of the end operations and swaps */
+    private final com.exercise1.YuenKwan.LI.DoublyLinkedList<Integer> deque =
+        new com.exercise1.YuenKwan.LI.DoublyLinkedList<>();
+    private final PreparedSwap<Integer> swap = new PreparedSwap<>(deque);
+
+    /** Target of concatenate and its two sources */
+    private final com.exercise2.YuenKwan.LI.DoublyLinkedList<Integer> joined =
+        new com.exercise2.YuenKwan.LI.DoublyLinkedList<>();
+    private final com.exercise2.YuenKwan.LI.DoublyLinkedList<Integer> left =
+        new com.exercise2.YuenKwan.LI.DoublyLinkedList<>();
+    private final com.exercise2.YuenKwan.LI.DoublyLinkedList<Integer> right =
+        new com.exercise2.YuenKwan.LI.DoublyLinkedList<>();
+
+    /** Target of rotate, and a rotation of it for equivalence checks */
+    private final CircularlyLinkedList<Integer> ring = new CircularlyLinkedList<>();
+    private final CircularlyLinkedList<Integer> mirror = new CircularlyLinkedList<>();
+
+    /** Latencies per operation, indexed by ordinal */
+    final LatencyHistogram[] histograms = new LatencyHistogram[Operation.values().length];
+
+    /** Next value of the sequential distribution */
+    int sequence = 0;
+
+    /** Absorbs results so the operations cannot be optimized away */
+    int sink;                                    // per worker, so threads share no cache line
+
+    /** Bytes allocated by this thread while measuring (-1 if unsupported) */
+    long allocated = -1;
+
+    Worker(WorkloadDriver driver, long seed) {
+      this.driver = driver;
+      random = new SplittableRandom(seed);
+      for (int j = 0; j < histograms.length; j++)
+        histograms[j] = new LatencyHistogram();
+      for (int j = 0; j < driver.size; j++) {
+        deque.addLast(value());
+        joined.addLast(value());
+        ring.addLast(value());
+      }
+      for (int j = 0; j < driver.batch; j++) {
+        left.addLast(value());
+        right.addLast(value());
+      }
+      for (int j = 0; j < driver.size; j++) {  // copy ring into mirror
+        mirror.addLast(ring.first());
+        ring.rotate();
+      }
+      for (int j = driver.size == 0 ? 0 : random.nextInt(driver.size); j > 0; j--)
+        ring.rotate();                           // and offset them by a random rotation
+    }
+
+    private Integer value() { return driver.distribution.next(random, this); }
+
+    public void run() {
+      long allocatedBefore = -1;
+      boolean measuring = false;
+      while (true) {
+        int phase = driver.phase;
+        if (phase == STOPPED) break;
+        if (phase == MEASURING && !measuring) {  // forget the warm-up
+          measuring = true;
+          for (LatencyHistogram h : histograms)
+            h.reset();
+          allocatedBefore = allocatedBytes();
+        }
+        step();
+      }
+      if (allocatedBefore >= 0) allocated = allocatedBytes() - allocatedBefore;
+    }
+
+    /** Performs and times one operation drawn from the mix. */
+    private void step() {
+      Operation op = driver.draw(random.nextInt(driver.totalWeight));
+      int limit = 2 * Math.max(driver.size, 1);
+      switch (op) {                              // keep the deque within [0, limit]
+        case ADD_FIRST: if (deque.size() >= limit) op = Operation.REMOVE_FIRST; break;
+        case ADD_LAST: if (deque.size() >= limit) op = Operation.REMOVE_LAST; break;
+        case REMOVE_FIRST: if (deque.isEmpty()) op = Operation.ADD_FIRST; break;
+        case REMOVE_LAST: if (deque.isEmpty()) op = Operation.ADD_LAST; break;
+        default:
+      }
+      Integer e = value();
+      if (op == Operation.SWAP) {                // find the nodes untimed, so only the swap is measured
+        if (deque.size() < 2) deque.addLast(e);
+        if (deque.size() < 2) deque.addLast(e);
+        int i = random.nextInt(deque.size());
+        int j = random.nextInt(deque.size() - 1);
+        if (j >= i) j++;                         // distinct from i
+        swap.prepare(i, j);
+      }
+      long start = System.nanoTime();
+      switch (op) {
+        case ADD_FIRST: deque.addFirst(e); break;
+        case ADD_LAST: deque.addLast(e); break;
+        case REMOVE_FIRST: sink ^= deque.removeFirst(); break;
+        case REMOVE_LAST: sink ^= deque.removeLast(); break;
+        case SWAP: swap.run(); break;
+        case CONCATENATE: joined.concatenate(left, right); break;
+        case ROTATE: ring.rotate(); mirror.rotate(); break;
+        case EQUIVALENCE: if (CircularlyLinkedList.hasSameElementsSeq(ring, mirror)) sink++; break;
+        default:
+      }
+      histograms[op.ordinal()].record(System.nanoTime() - start);
+      if (op == Operation.CONCATENATE)           // trim back, untimed
+        for (int k = 2 * driver.batch; k > 0; k--)
+          joined.removeFirst();
+    }
+
+    /** Returns the bytes allocated so far by the current thread, or -1. */
+    private static long allocatedBytes() {
+      ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+      if (threads instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+        if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled())
+          return hotspot.getCurrentThreadAllocatedBytes();
+      }
+      return -1;
+    }
+  } //----------- end of nested Worker class -----------
+
+  /** Phases of a run, published to the workers through phase */
+  static final int WARMING_UP = 0, MEASURING = 1, STOPPED = 2;
+
+  // configuration
+  private final Map<String, String> options;
+  private final int size, batch, threads, warmup, duration;
+  private final long seed;
+  private final Distribution distribution;
+
+  /** Operations with positive weight, and their cumulative weights */
+  private final Operation[] mix;
+  private final int[] cumulative;
+  private final int totalWeight;
+
+  /** Current phase of the run */
+  private volatile int phase = WARMING_UP;
+
+  /**
+   * Creates a driver from --name=value options.
+   * @throws IllegalArgumentException if an option is malformed or unknown
+   */
+  WorkloadDriver(String[] args) {
+    options = new LinkedHashMap<>();
+    options.put("mix", "addFirst:1,addLast:1,removeFirst:1,removeLast:1");
+    options.put("distribution", "uniform");
+    options.put("size", "1024");
+    options.put("range", null);
+    options.put("batch", "8");
+    options.put("threads", "1");
+    options.put("warmup", "2");
+    options.put("duration", "10");
+    options.put("seed", "42");
+    options.put("output", null);
+    for (String arg : args) {
+      int eq = arg.indexOf('=');
+      if (!arg.startsWith("--") || eq < 0 || !options.containsKey(arg.substring(2, eq)))
+        throw new IllegalArgumentException("Unrecognized option: " + arg);
+      options.put(arg.substring(2, eq), arg.substring(eq + 1));
+    }
+    size = Integer.parseInt(options.get("size"));
+    batch = Integer.parseInt(options.get("batch"));
+    threads = Integer.parseInt(options.get("threads"));
+    warmup = Integer.parseInt(options.get("warmup"));
+    duration = Integer.parseInt(options.get("duration"));
+    seed = Long.parseLong(options.get("seed"));
+    if (options.get("range") == null) options.put("range", Integer.toString(Math.max(size, 1)));
+    int range = Integer.parseInt(options.get("range"));
+    if (size < 0 || batch < 0 || threads < 1 || warmup < 0 || duration < 1 || range < 1)
+      throw new IllegalArgumentException("Option out of range: " + options);
+    distribution = Distribution.parse(options.get("distribution"), range);
+
+    List<Operation> ops = new ArrayList<>();
+    List<Integer> weights = new ArrayList<>();
+    for (String entry : options.get("mix").split(",")) {
+      String[] parts = entry.split(":");
+      if (parts.length != 2) throw new IllegalArgumentException("Malformed mix entry: " + entry);
+      int weight = Integer.parseInt(parts[1].trim());
+      if (weight < 0) throw new IllegalArgumentException("Negative weight: " + entry);
+      if (weight == 0) continue;
+      ops.add(Operation.of(parts[0].trim()));
+      weights.add(weight);
+    }
+    if (ops.isEmpty()) throw new IllegalArgumentException("Empty mix");
+    mix = ops.toArray(new Operation[0]);
+    cumulative = new int[mix.length];
+    int total = 0;
+    for (int j = 0; j < mix.length; j++)
+      cumulative[j] = total += weights.get(j);
+    totalWeight = total;
+  }
+
+  /** Returns the operation whose share of the total weight contains r. */
+  private Operation draw(int r) {
+    int j = 0;
+    while (cumulative[j] <= r) j++;
+    return mix[j];
+  }
+
+  /**
+   * Runs the workload and returns the report.
+   * @return the report, as a JSON object
+   */
+  String run() throws InterruptedException {
+    List<Worker> workers = new ArrayList<>();
+    List<Thread> running = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      Worker worker = new Worker(this, seed + t);
+      workers.add(worker);
+      Thread thread = new Thread(worker, "workload-" + t);
+      running.add(thread);
+    }
+    for (Thread thread : running)
+      thread.start();
+    Thread.sleep(warmup * 1000L);
+
+    long[] gcBefore = collections();
+    phase = MEASURING;
+    long start = System.nanoTime();
+    Thread.sleep(duration * 1000L);
+    phase = STOPPED;
+    long elapsed = System.nanoTime() - start;
+    long[] gcAfter = collections();
+    for (Thread thread : running)
+      thread.join();
+
+    LatencyHistogram all = new LatencyHistogram();
+    LatencyHistogram[] byOperation = new LatencyHistogram[Operation.values().length];
+    long allocated = 0;
+    int checksum = 0;
+    for (int j = 0; j < byOperation.length; j++)
+      byOperation[j] = new LatencyHistogram();
+    for (Worker worker : workers) {
+      for (int j = 0; j < byOperation.length; j++) {
+        byOperation[j].add(worker.histograms[j]);
+        all.add(worker.histograms[j]);
+      }
+      allocated = allocated < 0 || worker.allocated < 0 ? -1 : allocated + worker.allocated;
+      checksum ^= worker.sink;
+    }
+    return report(elapsed, all, byOperation, allocated, gcBefore, gcAfter, checksum);
+  }
+
+  /** Returns the collection count and time of each collector, interleaved. */
+  private static long[] collections() {
+    List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    long[] result = new long[2 * collectors.size()];
+    for (int j = 0; j < collectors.size(); j++) {
+      result[2 * j] = collectors.get(j).getCollectionCount();
+      result[2 * j + 1] = collectors.get(j).getCollectionTime();
+    }
+    return result;
+  }
+
+  /** Formats the measurements as a JSON object. */
+  private String report(long elapsed, LatencyHistogram all, LatencyHistogram[] byOperation,
+                        long allocated, long[] gcBefore, long[] gcAfter, int checksum) {
+    double seconds = elapsed / 1e9;
+    StringBuilder sb = new StringBuilder("{\n  \"config\": {");
+    String separator = "";
+    for (Map.Entry<String, String> option : options.entrySet()) {
+      if (option.getValue() == null) continue;
+      sb.append(separator).append("\n    ").append(quote(option.getKey())).append(": ");
+      sb.append(option.getKey().matches("mix|distribution|output")
+                ? quote(option.getValue()) : option.getValue());
+      separator = ",";
+    }
+    sb.append("\n  },\n  \"elapsedSeconds\": ").append(seconds);
+    sb.append(",\n  \"total\": ");
+    summary(sb, all, seconds);
+    sb.append(",\n  \"operations\": {");
+    separator = "";
+    for (Operation op : Operation.values()) {
+      if (byOperation[op.ordinal()].count() == 0) continue;
+      sb.append(separator).append("\n    ").append(quote(op.label)).append(": ");
+      summary(sb, byOperation[op.ordinal()], seconds);
+      separator = ",";
+    }
+    sb.append("\n  },\n  \"gc\": {\n    \"collectors\": [");
+    List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    for (int j = 0; j < collectors.size() && 2 * j + 1 < gcAfter.length; j++) {
+      sb.append(j == 0 ? "" : ",").append("\n      {\"name\": ").append(quote(collectors.get(j).getName()));
+      sb.append(", \"count\": ").append(gcAfter[2 * j] - gcBefore[2 * j]);
+      sb.append(", \"timeMillis\": ").append(gcAfter[2 * j + 1] - gcBefore[2 * j + 1]).append('}');
+    }
+    sb.append("\n    ],\n    \"allocatedBytes\": ").append(allocated);
+    sb.append(",\n    \"allocatedBytesPerOperation\": ");
+    sb.append(allocated < 0 || all.count() == 0 ? -1 : (double) allocated / all.count());
+    sb.append("\n  },\n  \"checksum\": ").append(checksum);
+    sb.append("\n}\n");
+    return sb.toString();
+  }
+
+  /** Appends the count, throughput and latency percentiles of a histogram. */
+  private static void summary(StringBuilder sb, LatencyHistogram h, double seconds) {
+    sb.append("{\"count\": ").append(h.count());
+    sb.append(", \"throughput\": ").append(Math.round(h.count() / seconds));
+    sb.append(", \"latencyNanos\": {\"mean\": ").append(Math.round(h.mean()));
+    sb.append(", \"p50\": ").append(h.percentile(0.5));
+    sb.append(", \"p99\": ").append(h.percentile(0.99));
+    sb.append(", \"p999\": ").append(h.percentile(0.999));
+    sb.append(", \"max\": ").append(h.max()).append("}}");
+  }
+
+  /** Returns s as a JSON string literal. */
+  private static String quote(String s) {
+    StringBuilder sb = new StringBuilder("\"");
+    for (char c : s.toCharArray()) {
+      if (c == '"' || c == '\\') sb.append('\\').append(c);
+      else if (c < ' ') sb.append(String.format("\\u%04x", (int) c));
+      else sb.append(c);
+    }
+    return sb.append('"').toString();
+  }
+
+  /**
+   * Runs a workload described by the command-line options and prints or
+   * writes its JSON report.
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    WorkloadDriver driver;
+    try {
+      driver = new WorkloadDriver(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println("usage: WorkloadDriver [--mix=op:weight,...] [--distribution=uniform|sequential|zipf:s]"
+                         + " [--range=n] [--size=n] [--batch=n] [--threads=n] [--warmup=s] [--duration=s]"
+                         + " [--seed=n] [--output=file]");
+      System.exit(2);
+      return;
+    }
+    String report = driver.run();
+    String output = driver.options.get("output");
+    if (output == null) System.out.print(report);
+    else Files.writeString(Paths.get(output), report);
+  }
+}
@@ -0,0 +1,22 @@
+package com.changefeed.YuenKwan.LI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ChangeEventTest {
+
+  @Test
+  void concatenatedAcceptsNullElements() {
+    List<String> appended = new ArrayList<>(Arrays.asList("a", null, "c"));
+    ChangeEvent<String> event = ChangeEvent.concatenated(appended);
+    appended.set(0, "changed");
+    assertEquals(Arrays.asList("a", null, "c"), event.getElements());
+    assertThrows(UnsupportedOperationException.class, () -> event.getElements().add("d"));
+  }
+}
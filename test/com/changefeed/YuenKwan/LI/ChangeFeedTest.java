@@ -0,0 +1,174 @@
+package com.changefeed.YuenKwan.LI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.exercise1.YuenKwan.LI.DoublyLinkedList;
+import com.exercise3.YuenKwan.LI.CircularlyLinkedList;
+
+/**
+ * Batching, demand and cancellation of a ChangeFeed, with subscribers
+ * running on their own thread.
+ */
+class ChangeFeedTest {
+
+  /** Runs the subscribers */
+  final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  @AfterEach
+  void stopExecutor() {
+    executor.shutdownNow();
+  }
+
+  /** Records the batches it receives, requesting a fixed number up front. */
+  static class Recorder implements Flow.Subscriber<List<ChangeEvent<Integer>>> {
+    final BlockingQueue<List<ChangeEvent<Integer>>> batches = new LinkedBlockingQueue<>();
+    final CountDownLatch subscribed = new CountDownLatch(1);
+    final long initialDemand;
+    volatile Flow.Subscription subscription;
+
+    Recorder(long initialDemand) { this.initialDemand = initialDemand; }
+
+    public void onSubscribe(Flow.Subscription s) {
+      subscription = s;
+      s.request(initialDemand);
+      subscribed.countDown();
+    }
+    public void onNext(List<ChangeEvent<Integer>> batch) { batches.add(batch); }
+    public void onError(Throwable t) { }
+    public void onComplete() { }
+
+    /** Waits for the next batch and returns its size. */
+    int next() throws InterruptedException {
+      List<ChangeEvent<Integer>> batch = batches.poll(5, TimeUnit.SECONDS);
+      assertNotNull(batch, "batch not delivered");
+      return batch.size();
+    }
+  }
+
+  private Recorder subscribe(ChangeFeed<Integer> feed, long demand) throws InterruptedException {
+    Recorder recorder = new Recorder(demand);
+    feed.subscribe(recorder);
+    assertTrue(recorder.subscribed.await(5, TimeUnit.SECONDS));
+    return recorder;
+  }
+
+  @Test
+  void waitingSubscriberSeesEachOperationWithoutFlush() throws InterruptedException {
+    ChangeFeed<Integer> feed = new ChangeFeed<>(executor, 8, 64);
+    Recorder recorder = subscribe(feed, Long.MAX_VALUE);
+    feed.publish(ChangeEvent.insertedLast(1));
+    feed.publish(ChangeEvent.insertedLast(2));
+    for (int e = 3; e <= 5; e++) feed.append(ChangeEvent.insertedLast(e));
+    feed.endOperation();                        // one operation with three events
+    assertEquals(1, recorder.next());
+    assertEquals(1, recorder.next());
+    assertEquals(3, recorder.next());
+  }
+
+  @Test
+  void busySubscriberReceivesBatchesOnlyOnDemand() throws InterruptedException {
+    ChangeFeed<Integer> feed = new ChangeFeed<>(executor, 8, 4);
+    Recorder recorder = subscribe(feed, 1);
+    feed.publish(ChangeEvent.insertedLast(0));
+    assertEquals(1, recorder.next());          // demand used up
+
+    for (int e = 1; e <= 10; e++) feed.publish(ChangeEvent.insertedLast(e));
+    assertNull(recorder.batches.poll(200, TimeUnit.MILLISECONDS), "sent beyond demand");
+
+    recorder.subscription.request(Long.MAX_VALUE);
+    assertEquals(4, recorder.next());          // two full batches were buffered
+    assertEquals(4, recorder.next());
+    feed.publish(ChangeEvent.insertedLast(11));
+    assertEquals(3, recorder.next());          // the rest, once it is waiting again
+  }
+
+  @Test
+  void flushPublishesPartialBatch() throws InterruptedException {
+    ChangeFeed<Integer> feed = new ChangeFeed<>(executor, 8, 64);
+    Recorder recorder = subscribe(feed, 1);
+    feed.publish(ChangeEvent.insertedLast(0));
+    assertEquals(1, recorder.next());
+    feed.publish(ChangeEvent.insertedLast(1));
+    feed.publish(ChangeEvent.insertedLast(2));
+    recorder.subscription.request(1);
+    feed.flush();
+    assertEquals(2, recorder.next());
+  }
+
+  @Test
+  void cancellationDeactivatesFeed() throws InterruptedException {
+    CircularlyLinkedList<Integer> list = new CircularlyLinkedList<>();
+    ChangeFeed<Integer> feed = list.changes();
+    Recorder first = subscribe(feed, Long.MAX_VALUE);
+    Recorder second = subscribe(feed, Long.MAX_VALUE);
+    assertTrue(feed.isActive());
+
+    first.subscription.cancel();
+    list.addLast(1);
+    assertTrue(feed.isActive(), "one subscriber left");
+    assertEquals(1, second.next());
+
+    second.subscription.cancel();               // takes effect asynchronously
+    for (int attempt = 0; feed.isActive() && attempt < 100; attempt++) {
+      list.addLast(2);
+      Thread.sleep(10);
+    }
+    assertFalse(feed.isActive(), "no subscribers left");
+
+    Recorder third = subscribe(feed, Long.MAX_VALUE);
+    assertTrue(feed.isActive());
+    list.addLast(3);
+    List<ChangeEvent<Integer>> batch = third.batches.poll(5, TimeUnit.SECONDS);
+    assertNotNull(batch, "batch not delivered");
+    assertEquals(1, batch.size(), "only mutations after subscribing");
+    assertEquals(ChangeEvent.Kind.INSERTED_LAST, batch.get(0).getKind());
+    assertEquals(3, batch.get(0).getElement());
+  }
+
+  @Test
+  void bulkOperationIsOneBatchOfEvents() throws InterruptedException {
+    DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+    list.addLast(0);
+    Recorder recorder = subscribe(list.changes(), Long.MAX_VALUE);
+
+    list.addAllFirst(new Integer[] {1, 2, 3});
+    assertEvents(recorder, ChangeEvent.Kind.INSERTED_FIRST, 3, 2, 1);
+    list.addAllLast(Arrays.asList(4, 5));
+    assertEvents(recorder, ChangeEvent.Kind.INSERTED_LAST, 4, 5);
+    list.drainTo(new ArrayList<>(), 2);
+    assertEvents(recorder, ChangeEvent.Kind.REMOVED_FIRST, 1, 2);
+    list.removeFirst(10);
+    assertEvents(recorder, ChangeEvent.Kind.REMOVED_FIRST, 3, 0, 4, 5);
+  }
+
+  /** Waits for the next batch and checks that it holds the given events, in order. */
+  private static void assertEvents(Recorder recorder, ChangeEvent.Kind kind, Integer... elements)
+      throws InterruptedException {
+    List<ChangeEvent<Integer>> batch = recorder.batches.poll(5, TimeUnit.SECONDS);
+    assertNotNull(batch, "batch not delivered");
+    List<Integer> received = new ArrayList<>();
+    for (ChangeEvent<Integer> event : batch) {
+      assertEquals(kind, event.getKind());
+      received.add(event.getElement());
+    }
+    assertEquals(Arrays.asList(elements), received);
+  }
+}
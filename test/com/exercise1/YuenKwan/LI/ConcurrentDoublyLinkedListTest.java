@@ -0,0 +1,115 @@
+package com.exercise1.YuenKwan.LI;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Optimistic reads of a ConcurrentDoublyLinkedList racing writers that
+ * only reorder it, so every consistent view holds the same elements.
+ */
+class ConcurrentDoublyLinkedListTest {
+
+  /** Long enough that a write often lands in the middle of a copy */
+  static final int SIZE = 4096;
+  static final int READERS = 4;
+  static final int WRITERS = 2;
+
+  /** Runs the readers and writers */
+  final ExecutorService executor = Executors.newFixedThreadPool(READERS + WRITERS);
+
+  @AfterEach
+  void stopExecutor() {
+    executor.shutdownNow();
+  }
+
+  /** Checks that a copy of the list holds each of 0 to SIZE-1 exactly once. */
+  private static void assertPermutation(Object[] copy) {
+    assertEquals(SIZE, copy.length);
+    Integer[] sorted = new Integer[SIZE];
+    for (int j = 0; j < SIZE; j++) {
+      assertNotNull(copy[j], "null element at " + j);
+      sorted[j] = (Integer) copy[j];
+    }
+    Arrays.sort(sorted);
+    for (int j = 0; j < SIZE; j++)
+      assertEquals(j, sorted[j], "not a permutation");
+  }
+
+  @Test
+  void readersSeeConsistentListWhileWritersReorder() throws Exception {
+    ConcurrentDoublyLinkedList<Integer> list = new ConcurrentDoublyLinkedList<>();
+    for (int i = 0; i < SIZE; i++) list.addLast(i);
+    AtomicBoolean running = new AtomicBoolean(true);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> tasks = new ArrayList<>();
+
+    for (int w = 0; w < WRITERS; w++) {
+      Random random = new Random(w);
+      tasks.add(executor.submit(() -> {
+        start.await();
+        int writes = 0;
+        for (; running.get(); writes++) {
+          if (random.nextBoolean()) list.rotate();
+          else list.swap(random.nextInt(SIZE), random.nextInt(SIZE));
+        }
+        return writes;
+      }));
+    }
+    for (int r = 0; r < READERS; r++) {
+      tasks.add(executor.submit(() -> {
+        start.await();
+        int reads = 0;
+        for (; running.get(); reads++) {
+          assertNotNull(list.first(), "first() of a non-empty list");
+          assertNotNull(list.last(), "last() of a non-empty list");
+          assertEquals(SIZE, list.size());
+          assertPermutation(list.toArray());
+        }
+        return reads;
+      }));
+    }
+
+    start.countDown();
+    Thread.sleep(500);
+    running.set(false);
+    for (Future<Integer> task : tasks) {
+      try {
+        assertTrue(task.get(10, TimeUnit.SECONDS) > 0, "thread made no progress");
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof AssertionError) throw (AssertionError) e.getCause();
+        throw e;
+      }
+    }
+    Object[] copy = list.toArray();
+    assertPermutation(copy);
+    assertEquals(copy[0], list.first());
+    assertEquals(copy[SIZE - 1], list.last());
+  }
+
+  @Test
+  void swapAndRotateReorderInPlace() {
+    ConcurrentDoublyLinkedList<Integer> list = new ConcurrentDoublyLinkedList<>();
+    for (int i = 0; i < 5; i++) list.addLast(i);
+    list.swap(3, 1);
+    list.swap(2, 2);
+    list.rotate();
+    assertArrayEquals(new Object[] {3, 2, 1, 4, 0}, list.toArray());
+  }
+}
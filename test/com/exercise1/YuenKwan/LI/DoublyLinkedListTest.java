@@ -0,0 +1,142 @@
+package com.exercise1.YuenKwan.LI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.footprint.YuenKwan.LI.Footprint;
+import com.journal.YuenKwan.LI.ElementCodec;
+import com.journal.YuenKwan.LI.OperationLog;
+
+class DoublyLinkedListTest {
+
+  private static DoublyLinkedList<Integer> listOf(int n) {
+    DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+    for (int i = 1; i <= n; i++) list.addLast(i);
+    return list;
+  }
+
+  private static void find(DoublyLinkedList<Integer> list, int value, int times) {
+    for (int k = 0; k < times; k++) list.find(e -> e == value);
+  }
+
+  @Test
+  void countOrdersByFindFrequency() {
+    DoublyLinkedList<Integer> list = listOf(5);
+    list.setOrganization(DoublyLinkedList.Organization.COUNT);
+    find(list, 5, 3);
+    find(list, 4, 2);
+    assertEquals("(5, 4, 1, 2, 3)", list.toString());
+  }
+
+  @Test
+  void countsSurviveCompactAndLeavingCount() {
+    DoublyLinkedList<Integer> list = listOf(5);
+    list.setOrganization(DoublyLinkedList.Organization.COUNT);
+    find(list, 5, 3);
+    find(list, 4, 2);
+    list.setOrganization(DoublyLinkedList.Organization.NONE);
+    list.compact();
+    list.setOrganization(DoublyLinkedList.Organization.COUNT);
+    find(list, 3, 1);                           // behind 5 and 4, ahead of the unfound
+    assertEquals("(5, 4, 3, 1, 2)", list.toString());
+    find(list, 4, 2);                           // 4 finds beat 3
+    assertEquals("(4, 5, 3, 1, 2)", list.toString());
+  }
+
+  @Test
+  void onlyCountingListsPayForCounts() {
+    DoublyLinkedList<Integer> plain = listOf(100);
+    plain.addLast(101);
+    assertEquals(101 * Footprint.objectSize(3, 0), plain.footprint().getLinks());
+
+    DoublyLinkedList<Integer> counting = listOf(100);
+    counting.setOrganization(DoublyLinkedList.Organization.COUNT);
+    counting.addLast(101);
+    assertEquals(101 * Footprint.objectSize(3, 4), counting.footprint().getLinks());
+  }
+
+  @Test
+  void swapTwoNodesIsReplayed(@TempDir Path dir) throws IOException {
+    Path path = dir.resolve("swap.log");
+    DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+    try (OperationLog<Integer> journal = open(path)) {
+      list.attachJournal(journal);
+      for (int i = 1; i <= 6; i++) list.addLast(i);
+      list.swapTwoNodes(list.nodeAt(4), list.nodeAt(1));   // apart, later node first
+      list.swapTwoNodes(list.nodeAt(3), list.nodeAt(2));   // adjacent, later node first
+      list.swapTwoNodes(list.nodeAt(0), list.nodeAt(5));
+    }
+    assertEquals("(6, 5, 4, 3, 2, 1)", list.toString());
+
+    DoublyLinkedList<Integer> reopened = new DoublyLinkedList<>();
+    try (OperationLog<Integer> journal = open(path)) {
+      reopened.attachJournal(journal);
+    }
+    assertEquals(list.toString(), reopened.toString());
+  }
+
+  @Test
+  void addsAllOfItself() {
+    DoublyLinkedList<Integer> list = listOf(3);
+    list.addAllLast(list);
+    assertEquals("(1, 2, 3, 1, 2, 3)", list.toString());
+    list.removeFirst(3);
+    list.addLast(4);
+    list.addAllFirst(list);
+    assertEquals("(1, 2, 3, 4, 1, 2, 3, 4)", list.toString());
+    assertEquals(8, list.size());
+  }
+
+  @Test
+  void drainToRejectingCollectionLeavesListUnchanged() {
+    DoublyLinkedList<Integer> list = listOf(5);
+    List<Integer> dest = new ArrayList<Integer>() {
+      @Override
+      public boolean add(Integer e) {
+        if (e == 3) throw new IllegalArgumentException("rejected " + e);
+        return super.add(e);
+      }
+    };
+    assertThrows(IllegalArgumentException.class, () -> list.drainTo(dest, 4));
+    assertEquals("(1, 2, 3, 4, 5)", list.toString());
+    assertEquals(5, list.size());
+    assertEquals(2, list.drainTo(dest, 2));
+    assertEquals("(3, 4, 5)", list.toString());
+  }
+
+  @Test
+  void bulkOperationsAreReplayed(@TempDir Path dir) throws IOException {
+    Path path = dir.resolve("bulk.log");
+    DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+    List<Integer> drained = new ArrayList<>();
+    try (OperationLog<Integer> journal = open(path)) {
+      list.attachJournal(journal);
+      list.addAllLast(new Integer[] {1, 2, 3, 4});
+      list.addAllFirst(Arrays.asList(-1, 0));
+      list.addAllLast(list);
+      list.removeFirst(3);
+      list.drainTo(drained, 2);
+    }
+    assertEquals("(4, -1, 0, 1, 2, 3, 4)", list.toString());
+    assertEquals(Arrays.asList(2, 3), drained);
+
+    DoublyLinkedList<Integer> reopened = new DoublyLinkedList<>();
+    try (OperationLog<Integer> journal = open(path)) {
+      reopened.attachJournal(journal);
+    }
+    assertEquals(list.toString(), reopened.toString());
+  }
+
+  private static OperationLog<Integer> open(Path path) throws IOException {
+    return new OperationLog<>(path, ElementCodec.INTEGERS, OperationLog.SyncPolicy.ON_CLOSE, 1);
+  }
+}
@@ -0,0 +1,113 @@
+package com.exercise1.YuenKwan.LI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unlinking of collected elements from a weak ReferenceDoublyLinkedList.
+ * Each dropped element also has a probe reference, so a test can wait
+ * until the collector has cleared and enqueued it.
+ */
+class ReferenceDoublyLinkedListTest {
+
+  /** Elements kept reachable by the test */
+  final List<Object> kept = new ArrayList<>();
+
+  /** Probes of the elements the test dropped */
+  final ReferenceQueue<Object> probes = new ReferenceQueue<>();
+  final List<WeakReference<Object>> probed = new ArrayList<>();
+
+  /** Adds n new elements at the end, keeping them or only probing them. */
+  private void add(ReferenceDoublyLinkedList<Object> list, int n, boolean keep) {
+    for (int i = 0; i < n; i++) {
+      Object e = new Object();
+      list.addLast(e);
+      if (keep) kept.add(e);
+      else probed.add(new WeakReference<>(e, probes));
+    }
+  }
+
+  /** Collects garbage until every probe has been enqueued, then lets the list's references catch up. */
+  private void collect() throws InterruptedException {
+    int pending = probed.size();
+    for (int attempt = 0; pending > 0; attempt++) {
+      assertTrue(attempt < 100, "elements not collected");
+      System.gc();
+      while (pending > 0 && probes.remove(50) != null) pending--;
+    }
+    probed.clear();
+    Thread.sleep(100);                          // the list's references are enqueued alongside
+  }
+
+  /** Collects garbage until the probed element has been cleared. */
+  private static void cleared(WeakReference<Object> probe) {
+    for (int attempt = 0; probe.get() != null; attempt++) {
+      assertTrue(attempt < 100, "element not collected");
+      System.gc();
+    }
+  }
+
+  @Test
+  void sizeDropsWhenElementsAreCollected() throws InterruptedException {
+    ReferenceDoublyLinkedList<Object> list = new ReferenceDoublyLinkedList<>(
+        ReferenceDoublyLinkedList.Strength.WEAK);
+    for (int i = 0; i < 50; i++) {
+      add(list, 1, true);
+      add(list, 1, false);
+    }
+    assertEquals(100, list.size());
+    collect();
+    assertEquals(50, list.size());              // drained from the queue, no traversal
+    assertSame(kept.get(0), list.first());
+    assertSame(kept.get(49), list.last());
+  }
+
+  @Test
+  void nodePassedOverByFirstIsNotCountedTwice() throws InterruptedException {
+    ReferenceDoublyLinkedList<Object> list = new ReferenceDoublyLinkedList<>(
+        ReferenceDoublyLinkedList.Strength.WEAK);
+    add(list, 3, false);
+    add(list, 2, true);
+    cleared(probed.get(2));                     // perhaps not yet enqueued
+    assertSame(kept.get(0), list.first());      // unlinks the three cleared nodes
+    collect();
+    assertEquals(2, list.size());               // their enqueued references are skipped
+    assertEquals(0, list.prune());
+  }
+
+  @Test
+  void nodeDiscardedByRemoveFirstIsNotCountedTwice() throws InterruptedException {
+    ReferenceDoublyLinkedList<Object> list = new ReferenceDoublyLinkedList<>(
+        ReferenceDoublyLinkedList.Strength.WEAK);
+    add(list, 2, false);
+    add(list, 3, true);
+    cleared(probed.get(1));
+    assertSame(kept.get(0), list.removeFirst());   // discards the cleared nodes in front
+    collect();
+    assertEquals(2, list.size());
+    assertSame(kept.get(1), list.removeFirst());
+    assertEquals(1, list.size());
+  }
+
+  @Test
+  void pruneUnlinksAtMostMax() throws InterruptedException {
+    ReferenceDoublyLinkedList<Object> list = new ReferenceDoublyLinkedList<>(
+        ReferenceDoublyLinkedList.Strength.WEAK);
+    add(list, 1, true);
+    add(list, 20, false);
+    collect();
+    int total = 0;
+    for (int unlinked; (unlinked = list.prune(3)) > 0; total += unlinked)
+      assertTrue(unlinked <= 3, "unlinked " + unlinked);
+    assertEquals(20, total + list.prune());     // any reference enqueued late
+    assertEquals(1, list.size());
+  }
+}
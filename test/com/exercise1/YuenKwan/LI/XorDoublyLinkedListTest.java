@@ -0,0 +1,29 @@
+package com.exercise1.YuenKwan.LI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.footprint.YuenKwan.LI.Footprint;
+
+class XorDoublyLinkedListTest {
+
+  @Test
+  void footprintSeparatesLinksFromElementSlots() {
+    XorDoublyLinkedList<Integer> list = new XorDoublyLinkedList<>();
+    for (int i = 0; i < 14; i++) list.addLast(i);   // fills the initial 16 slots
+    Footprint footprint = list.footprint();
+    assertEquals(Footprint.arraySize(4, 16) - 2 * 4, footprint.getLinks());
+    assertEquals(Footprint.arraySize(Footprint.REFERENCE, 16) - 2 * Footprint.REFERENCE,
+                 footprint.getSlots());
+    assertEquals(2 * (Footprint.REFERENCE + 4), footprint.getSentinels());
+    assertEquals(14 * Footprint.objectSize(0, 4), footprint.getElements());
+  }
+
+  @Test
+  void nodeListsHaveNoSeparateSlots() {
+    DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+    list.addLast(1);
+    assertEquals(0, list.footprint().getSlots());
+  }
+}
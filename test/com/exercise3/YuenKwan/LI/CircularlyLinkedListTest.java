@@ -0,0 +1,51 @@
+package com.exercise3.YuenKwan.LI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class CircularlyLinkedListTest {
+
+  private static CircularlyLinkedList<Integer> listOf(int capacity, int n) {
+    CircularlyLinkedList<Integer> list = capacity > 0
+        ? new CircularlyLinkedList<>(capacity) : new CircularlyLinkedList<>();
+    for (int i = 1; i <= n; i++) list.addLast(i);
+    return list;
+  }
+
+  @Test
+  void addsAllOfItself() {
+    CircularlyLinkedList<Integer> list = listOf(0, 3);
+    list.addAllLast(list);
+    assertEquals("(1, 2, 3, 1, 2, 3)", list.toString());
+    list.addAllFirst(list);
+    assertEquals(12, list.size());
+    assertEquals("(1, 2, 3, 1, 2, 3, 1, 2, 3, 1, 2, 3)", list.toString());
+  }
+
+  @Test
+  void boundedAddAllFirstMustFit() {
+    CircularlyLinkedList<Integer> list = listOf(5, 3);
+    assertThrows(IllegalStateException.class, () -> list.addAllFirst(new Integer[] {-2, -1, 0}));
+    assertEquals("(1, 2, 3)", list.toString());
+    list.addAllFirst(Arrays.asList(-1, 0));
+    assertEquals("(-1, 0, 1, 2, 3)", list.toString());
+    assertThrows(IllegalStateException.class, () -> list.addAllFirst(list));
+  }
+
+  @Test
+  void boundedAddAllLastOverwritesOldest() {
+    CircularlyLinkedList<Integer> list = listOf(4, 3);
+    list.addAllLast(new Integer[] {4, 5, 6});
+    assertEquals("(3, 4, 5, 6)", list.toString());
+    assertEquals(4, list.size());
+    list.addAllLast(list);                       // every element overwritten by its copy
+    assertEquals("(3, 4, 5, 6)", list.toString());
+    list.removeFirst(2);
+    list.addAllLast(list);
+    assertEquals("(5, 6, 5, 6)", list.toString());
+  }
+}
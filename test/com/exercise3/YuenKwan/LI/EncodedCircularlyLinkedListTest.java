@@ -0,0 +1,71 @@
+package com.exercise3.YuenKwan.LI;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.symbols.YuenKwan.LI.SymbolTable;
+
+class EncodedCircularlyLinkedListTest {
+
+  private static EncodedCircularlyLinkedList ring(SymbolTable symbols, String... elements) {
+    EncodedCircularlyLinkedList list = new EncodedCircularlyLinkedList(symbols);
+    for (String e : elements) list.addLast(e);
+    return list;
+  }
+
+  private static boolean same(EncodedCircularlyLinkedList a, EncodedCircularlyLinkedList b) {
+    return EncodedCircularlyLinkedList.hasSameElementsSeq(a, b);
+  }
+
+  @Test
+  void equalAndRotatedRingsMatch() {
+    SymbolTable symbols = new SymbolTable();
+    EncodedCircularlyLinkedList a = ring(symbols, "A", "B", "C", "D");
+    assertTrue(same(a, ring(symbols, "A", "B", "C", "D")));
+    EncodedCircularlyLinkedList b = ring(symbols, "C", "D", "A", "B");
+    assertTrue(same(a, b));
+    assertTrue(same(b, a));
+    assertTrue(same(ring(symbols), ring(symbols)));
+  }
+
+  @Test
+  void rotationsWithRepeatedElementsMatch() {
+    SymbolTable symbols = new SymbolTable();
+    EncodedCircularlyLinkedList a = ring(symbols, "A", "A", "B", "A", "A", "A", "B");
+    EncodedCircularlyLinkedList b = ring(symbols, "A", "A", "A", "B", "A", "A", "B");
+    assertTrue(same(a, b));                     // the second A of b starts the match
+    a.rotate();
+    assertTrue(same(a, b));
+  }
+
+  @Test
+  void unequalRingsDoNotMatch() {
+    SymbolTable symbols = new SymbolTable();
+    EncodedCircularlyLinkedList a = ring(symbols, "A", "A", "B", "A", "B");
+    assertFalse(same(a, ring(symbols, "A", "B", "A", "B", "B")));   // different counts
+    assertFalse(same(a, ring(symbols, "A", "A", "A", "B", "B")));   // same counts, not a rotation
+    assertFalse(same(a, ring(symbols, "A", "A", "B", "A")));        // different sizes
+    assertFalse(same(ring(symbols, "A"), ring(symbols)));
+  }
+
+  @Test
+  void separateTablesAreTranslated() {
+    SymbolTable first = new SymbolTable(), second = new SymbolTable();
+    second.intern("Z");                         // so that the codes differ
+    EncodedCircularlyLinkedList a = ring(first, "A", "B", "C");
+    assertTrue(same(a, ring(second, "B", "C", "A")));
+    assertFalse(same(a, ring(second, "B", "A", "C")));
+  }
+
+  @Test
+  void unknownSymbolsDoNotMatch() {
+    SymbolTable first = new SymbolTable(), second = new SymbolTable();
+    EncodedCircularlyLinkedList a = ring(first, "A", "B", "C");
+    assertFalse(same(a, ring(second, "A", "B", "X")));   // X never interned in first
+    first.intern("Y");                          // interned, but not in a
+    assertFalse(same(a, ring(second, "A", "Y", "C")));
+    assertFalse(same(a, ring(first, "A", "Y", "C")));
+  }
+}
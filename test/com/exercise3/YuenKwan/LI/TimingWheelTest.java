@@ -0,0 +1,134 @@
+package com.exercise3.YuenKwan.LI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * TimingWheel driven tick by tick, with the wheel's own tick count as the
+ * simulated clock.
+ */
+class TimingWheelTest {
+
+  /** Drives a wheel and records the tick at which each task expired. */
+  private static final class Clock {
+    final TimingWheel<Integer> wheel;
+    final Map<Integer, Long> expiredAt = new HashMap<>();
+
+    Clock(int slotsPerLevel, int levels) { wheel = new TimingWheel<>(slotsPerLevel, levels); }
+
+    int tick() {
+      return wheel.tick(task -> {
+        if (expiredAt.put(task, wheel.now()) != null) fail("task " + task + " expired twice");
+      });
+    }
+
+    int advance(long ticks) {
+      int count = 0;
+      for (long j = 0; j < ticks; j++) count += tick();
+      return count;
+    }
+  }
+
+  @Test
+  void expiresAtDeadlineAcrossCascades() {
+    Clock clock = new Clock(4, 3);              // levels span 4, 16 and 64 ticks
+    List<TimingWheel.Timeout<Integer>> timeouts = new ArrayList<>();
+    for (int delay = 1; delay < 64; delay++)
+      timeouts.add(clock.wheel.schedule(delay, delay));
+    clock.advance(5);                           // schedule again off a revolution boundary
+    for (int delay = 1; delay < 64; delay++)
+      timeouts.add(clock.wheel.schedule(100 + delay, delay));
+    assertEquals(63 + 63 - 5, clock.wheel.size());
+    assertEquals(63 + 63 - 5, clock.advance(200));
+    for (TimingWheel.Timeout<Integer> t : timeouts) {
+      assertEquals(t.getDeadline(), (long) clock.expiredAt.get(t.getTask()), "task " + t.getTask());
+      assertFalse(t.isPending());
+    }
+    assertTrue(clock.wheel.isEmpty());
+  }
+
+  @Test
+  void parksTimeoutsBeyondTheWheel() {
+    for (int levels = 1; levels <= 2; levels++) {
+      Clock clock = new Clock(4, levels);       // spans 4 or 16 ticks
+      clock.advance(3);
+      TimingWheel.Timeout<Integer> far = clock.wheel.schedule(1, 100);
+      TimingWheel.Timeout<Integer> farther = clock.wheel.schedule(2, 1000);
+      assertEquals(0, clock.advance(99));
+      assertTrue(far.isPending());
+      assertEquals(1, clock.tick());
+      assertEquals(103L, clock.expiredAt.get(1));
+      assertEquals(1, clock.advance(900));
+      assertEquals(1003L, clock.expiredAt.get(2));
+      assertFalse(farther.isPending());
+    }
+  }
+
+  @Test
+  void cancelsCascadedTimeout() {
+    Clock clock = new Clock(4, 2);
+    TimingWheel.Timeout<Integer> t = clock.wheel.schedule(1, 10);   // starts in level 1
+    TimingWheel.Timeout<Integer> kept = clock.wheel.schedule(2, 11);
+    clock.advance(8);                           // level 1 has moved both down to level 0
+    assertTrue(clock.wheel.cancel(t));
+    assertFalse(t.isPending());
+    assertFalse(clock.wheel.cancel(t));
+    assertEquals(1, clock.wheel.size());
+    assertEquals(1, clock.advance(20));
+    assertFalse(clock.expiredAt.containsKey(1));
+    assertEquals(11L, clock.expiredAt.get(2));
+    assertFalse(clock.wheel.cancel(kept));      // already expired
+  }
+
+  @Test
+  void cancelsParkedTimeout() {
+    Clock clock = new Clock(4, 2);
+    TimingWheel.Timeout<Integer> t = clock.wheel.schedule(1, 50);
+    clock.advance(20);                          // parked, then placed again at tick 12
+    assertTrue(clock.wheel.cancel(t));
+    assertEquals(0, clock.advance(100));
+    assertTrue(clock.wheel.isEmpty());
+  }
+
+  @Test
+  void randomScheduleAndCancel() {
+    Random random = new Random(254);
+    Clock clock = new Clock(8, 3);              // spans 512 ticks
+    Map<Integer, TimingWheel.Timeout<Integer>> pending = new HashMap<>();
+    Map<Integer, Long> deadlines = new HashMap<>();
+    List<Integer> cancelled = new ArrayList<>();
+    int next = 0;
+    for (int step = 0; step < 5000; step++) {
+      for (int k = random.nextInt(4); k > 0; k--) {
+        TimingWheel.Timeout<Integer> t = clock.wheel.schedule(next, 1 + random.nextInt(1500));
+        pending.put(next, t);
+        deadlines.put(next, t.getDeadline());
+        next++;
+      }
+      if (!pending.isEmpty() && random.nextInt(4) == 0) {
+        Integer victim = new ArrayList<>(pending.keySet()).get(random.nextInt(pending.size()));
+        assertTrue(clock.wheel.cancel(pending.remove(victim)));
+        cancelled.add(victim);
+      }
+      clock.tick();
+      pending.values().removeIf(t -> !t.isPending());
+      assertEquals(pending.size(), clock.wheel.size());
+    }
+    clock.advance(1500);
+    assertTrue(clock.wheel.isEmpty());
+    for (Integer task : cancelled)
+      assertFalse(clock.expiredAt.containsKey(task), "cancelled task " + task);
+    assertEquals(next - cancelled.size(), clock.expiredAt.size());
+    clock.expiredAt.forEach((task, at) -> assertEquals(deadlines.get(task), at, "task " + task));
+  }
+}
@@ -0,0 +1,75 @@
+package com.exercise3.YuenKwan.LI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class WeightedCircularlyLinkedListTest {
+
+  /** Counts the selections made by n calls of next(). */
+  private static Map<String, Integer> select(WeightedCircularlyLinkedList<String> list, int n) {
+    Map<String, Integer> counts = new HashMap<>();
+    for (int k = 0; k < n; k++)
+      counts.merge(list.next(), 1, Integer::sum);
+    return counts;
+  }
+
+  @Test
+  void selectsInProportionToWeight() {
+    WeightedCircularlyLinkedList<String> list = new WeightedCircularlyLinkedList<>();
+    list.addLast("A", 5);
+    list.addLast("B", 1);
+    list.addLast("C", 1);
+    assertEquals(Map.of("A", 5, "B", 1, "C", 1), select(list, 7));
+    assertEquals(Map.of("A", 50, "B", 10, "C", 10), select(list, 70));
+  }
+
+  @Test
+  void zeroWeightIsNeverSelected() {
+    WeightedCircularlyLinkedList<String> list = new WeightedCircularlyLinkedList<>();
+    list.addLast("A", 5);
+    WeightedCircularlyLinkedList.Entry<String> b = list.addLast("B", 5);
+    assertEquals("A", list.next());
+    list.setWeight(b, 0);
+    assertEquals(Map.of("A", 20), select(list, 20));
+    list.setWeight(b, 5);
+    assertEquals(Map.of("A", 10, "B", 10), select(list, 20));
+  }
+
+  @Test
+  void allZeroWeightsSelectNothing() {
+    WeightedCircularlyLinkedList<String> list = new WeightedCircularlyLinkedList<>();
+    WeightedCircularlyLinkedList.Entry<String> a = list.addLast("A", 3);
+    list.next();
+    list.setWeight(a, 0);
+    assertNull(list.next());
+  }
+
+  @Test
+  void setWeightRejectsRemovedEntry() {
+    WeightedCircularlyLinkedList<String> list = new WeightedCircularlyLinkedList<>();
+    WeightedCircularlyLinkedList.Entry<String> a = list.addLast("A", 2);
+    list.addLast("B", 3);
+    list.removeFirst();
+    assertThrows(IllegalArgumentException.class, () -> list.setWeight(a, 7));
+    assertEquals(3, list.totalWeight());
+  }
+
+  @Test
+  void removeFirstKeepsProportions() {
+    WeightedCircularlyLinkedList<String> list = new WeightedCircularlyLinkedList<>();
+    list.addLast("A", 4);
+    list.addLast("B", 1);
+    list.addLast("C", 3);
+    select(list, 3);                            // leave A with a nonzero score
+    list.removeFirst();
+    // with the scores summing to zero again, every lap of totalWeight picks is exact
+    assertEquals(Map.of("B", 1, "C", 3), select(list, 4));
+    assertEquals(Map.of("B", 2, "C", 6), select(list, 8));
+  }
+}
@@ -0,0 +1,331 @@
+package com.journal.YuenKwan.LI;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.exercise1.YuenKwan.LI.DoublyLinkedList;
+import com.exercise3.YuenKwan.LI.CircularlyLinkedList;
+
+/**
+ * Recovery of an OperationLog written through DoublyLinkedList.attachJournal,
+ * after simulated torn writes, corruption and failed writes, and of logs
+ * written by the other journaled lists.
+ */
+class OperationLogTest {
+
+  @TempDir
+  Path dir;
+
+  /** The intact log */
+  byte[] log;
+
+  /** End offset of each record; boundaries[k] is the size of the log holding k records */
+  List<Long> boundaries = new ArrayList<>();
+
+  /** Contents of the list after k records */
+  List<String> states = new ArrayList<>();
+
+  @BeforeEach
+  void writeLog() throws IOException {
+    Path path = dir.resolve("intact.log");
+    DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+    try (OperationLog<Integer> journal = open(path)) {
+      list.attachJournal(journal);
+      snapshot(path, list);
+      List<Consumer<DoublyLinkedList<Integer>>> mutations = List.of(
+          l -> l.addLast(1), l -> l.addLast(2), l -> l.addLast(3), l -> l.addLast(4),
+          l -> l.addFirst(0),
+          l -> l.removeLast(),
+          l -> l.swapAll(new int[][] {{0, 3}}),
+          l -> l.applyPermutation(new int[] {3, 2, 1, 0}),
+          l -> l.addAllLast(new Integer[] {5, 6, 7}),
+          l -> l.removeFirst(2),
+          l -> l.addAllFirst(List.of(8, 9)),
+          l -> l.removeFirst());
+      for (Consumer<DoublyLinkedList<Integer>> mutation : mutations) {
+        mutation.accept(list);
+        snapshot(path, list);
+      }
+    }
+    log = Files.readAllBytes(path);
+    assertEquals(log.length, boundaries.get(boundaries.size() - 1));
+  }
+
+  /** Opens a log that writes each record as soon as it is made. */
+  private static OperationLog<Integer> open(Path path) throws IOException {
+    return new OperationLog<>(path, ElementCodec.INTEGERS, OperationLog.SyncPolicy.ON_CLOSE, 1);
+  }
+
+  private void snapshot(Path path, DoublyLinkedList<Integer> list) throws IOException {
+    boundaries.add(Files.size(path));
+    states.add(list.toString());
+  }
+
+  /** Number of records in the log. */
+  private int records() { return boundaries.size() - 1; }
+
+  /** Writes the given bytes to a fresh log file. */
+  private Path damaged(byte[] bytes) throws IOException {
+    Path path = dir.resolve("damaged.log");
+    Files.write(path, bytes);
+    return path;
+  }
+
+  @Test
+  void replaysIntactLog() throws IOException {
+    Path path = damaged(log);
+    DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+    try (OperationLog<Integer> journal = open(path)) {
+      list.attachJournal(journal);
+    }
+    assertEquals(states.get(records()), list.toString());
+    assertEquals(log.length, Files.size(path));
+  }
+
+  @Test
+  void tornWriteReplaysIntactPrefix() throws IOException {
+    for (int cut = 0; cut <= log.length; cut++) {
+      int intact = 0;
+      while (intact < records() && boundaries.get(intact + 1) <= cut) intact++;
+      Path path = damaged(Arrays.copyOf(log, cut));
+
+      DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+      try (OperationLog<Integer> journal = open(path)) {
+        list.attachJournal(journal);
+        assertEquals(states.get(intact), list.toString(), "cut at " + cut);
+        assertEquals((long) boundaries.get(intact), Files.size(path), "cut at " + cut);
+        list.addLast(99);                       // the recovered log can be appended to
+      }
+
+      DoublyLinkedList<Integer> reopened = new DoublyLinkedList<>();
+      try (OperationLog<Integer> journal = open(path)) {
+        reopened.attachJournal(journal);
+      }
+      assertEquals(list.toString(), reopened.toString(), "cut at " + cut);
+    }
+  }
+
+  @Test
+  void corruptChecksumIsTornOnlyAtTheEnd() throws IOException {
+    for (int r = 0; r < records(); r++) {
+      int checksum = (int) (long) boundaries.get(r + 1) - 4;
+      for (int b = checksum; b < checksum + 4; b++)
+        assertRecoversPrefix(flip(b), r);
+    }
+  }
+
+  @Test
+  void corruptBodyIsTornOnlyAtTheEnd() throws IOException {
+    for (int r = 0; r < records(); r++) {
+      int start = (int) (long) boundaries.get(r), end = (int) (long) boundaries.get(r + 1);
+      for (int b = start; b < end - 4; b++)     // length field and body
+        assertRecoversPrefix(flip(b), r);
+    }
+  }
+
+  /** Returns a copy of the log with the given byte inverted. */
+  private byte[] flip(int offset) {
+    byte[] bytes = log.clone();
+    bytes[offset] ^= (byte) 0xFF;
+    return bytes;
+  }
+
+  /**
+   * Checks recovery of a log whose record r is damaged: the records before
+   * it are replayed, and the damage is cut off if r is the last record and
+   * reported otherwise, leaving the file untouched.
+   */
+  private void assertRecoversPrefix(byte[] bytes, int r) throws IOException {
+    Path path = damaged(bytes);
+    DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+    try (OperationLog<Integer> journal = open(path)) {
+      if (r == records() - 1) {
+        list.attachJournal(journal);
+        assertEquals((long) boundaries.get(r), Files.size(path), "record " + r);
+      } else {
+        assertThrows(IOException.class, () -> list.attachJournal(journal), "record " + r);
+        assertArrayEquals(bytes, Files.readAllBytes(path), "record " + r);
+      }
+    }
+    assertEquals(states.get(r), list.toString(), "record " + r);
+  }
+
+  /** A log whose group writes can be made to fail halfway through. */
+  private static class FailingLog extends OperationLog<Integer> {
+    boolean failing = false;
+
+    FailingLog(Path path) throws IOException {
+      super(path, ElementCodec.INTEGERS, OperationLog.SyncPolicy.ON_CLOSE, 2);
+    }
+
+    @Override
+    void write(ByteBuffer buffer) throws IOException {
+      if (failing) {
+        buffer.limit(buffer.position() + buffer.remaining() / 2);
+        super.write(buffer);
+        throw new IOException("injected failure");
+      }
+      super.write(buffer);
+    }
+  }
+
+  @Test
+  void failedCommitDropsGroupUntilCheckpoint() throws IOException {
+    Path path = dir.resolve("failing.log");
+    DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+    try (FailingLog journal = new FailingLog(path)) {
+      list.attachJournal(journal);
+      list.addLast(1);
+      list.addLast(2);                          // group of two written
+      long committed = Files.size(path);
+
+      journal.failing = true;
+      list.addLast(3);                          // made, but only pending
+      assertThrows(UncheckedIOException.class, () -> list.addLast(4));
+      assertEquals(committed, Files.size(path), "failed group is cut off");
+      assertEquals("(1, 2, 3)", list.toString());
+
+      journal.failing = false;
+      assertThrows(UncheckedIOException.class, () -> list.addLast(5));
+      assertThrows(IOException.class, journal::commit);
+      assertEquals("(1, 2, 3)", list.toString());
+
+      list.checkpoint();                        // rewrites the log from the list
+      list.addLast(6);
+    }
+
+    DoublyLinkedList<Integer> reopened = new DoublyLinkedList<>();
+    try (OperationLog<Integer> journal = open(path)) {
+      reopened.attachJournal(journal);
+    }
+    assertEquals("(1, 2, 3, 6)", reopened.toString());
+  }
+
+  @Test
+  void closeReleasesUnusableLog() throws IOException {
+    Path path = dir.resolve("failing.log");
+    FailingLog journal = new FailingLog(path);
+    journal.addLast(1);
+    journal.failing = true;
+    assertThrows(IOException.class, () -> journal.addLast(2));
+    assertThrows(IOException.class, journal::close);
+    Files.delete(path);                         // the channel was closed anyway
+  }
+
+  @Test
+  void replaysCheckpointAndLaterRecords() throws IOException {
+    Path path = dir.resolve("checkpoint.log");
+    DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+    try (OperationLog<Integer> journal = open(path)) {
+      list.attachJournal(journal);
+      list.addAllLast(new Integer[] {1, 2, 3, 4});
+      list.removeFirst();
+      list.checkpoint();
+      list.addFirst(0);
+      list.swapAll(new int[][] {{0, 3}});
+    }
+    assertEquals("(4, 2, 3, 0)", list.toString());
+
+    DoublyLinkedList<Integer> reopened = new DoublyLinkedList<>();
+    try (OperationLog<Integer> journal = open(path)) {
+      assertEquals(3, countRecords(journal), "snapshot and two later records");
+    }
+    try (OperationLog<Integer> journal = open(path)) {
+      reopened.attachJournal(journal);
+    }
+    assertEquals(list.toString(), reopened.toString());
+  }
+
+  @Test
+  void replaysConcatenateAndBulkRecords() throws IOException {
+    Path path = dir.resolve("exercise2.log");
+    com.exercise2.YuenKwan.LI.DoublyLinkedList<Integer> list =
+        new com.exercise2.YuenKwan.LI.DoublyLinkedList<>();
+    com.exercise2.YuenKwan.LI.DoublyLinkedList<Integer> l1 =
+        new com.exercise2.YuenKwan.LI.DoublyLinkedList<>();
+    com.exercise2.YuenKwan.LI.DoublyLinkedList<Integer> l2 =
+        new com.exercise2.YuenKwan.LI.DoublyLinkedList<>();
+    l1.addAllLast(new Integer[] {1, 2});
+    l2.addAllLast(List.of(3, 4));
+    try (OperationLog<Integer> journal = open(path)) {
+      list.attachJournal(journal);
+      list.addLast(0);
+      list.concatenate(l1, l2);
+      list.addAllFirst(List.of(7, 8));
+      list.removeFirst(3);
+      list.addAllLast(l1);
+      list.removeLast();
+    }
+    assertEquals("(1, 2, 3, 4, 1)", list.toString());
+
+    com.exercise2.YuenKwan.LI.DoublyLinkedList<Integer> reopened =
+        new com.exercise2.YuenKwan.LI.DoublyLinkedList<>();
+    try (OperationLog<Integer> journal = open(path)) {
+      reopened.attachJournal(journal);
+    }
+    assertEquals(list.toString(), reopened.toString());
+  }
+
+  @Test
+  void replaysCircularRecords() throws IOException {
+    Path path = dir.resolve("circular.log");
+    CircularlyLinkedList<Integer> list = new CircularlyLinkedList<>();
+    try (OperationLog<Integer> journal = open(path)) {
+      list.attachJournal(journal);
+      list.addAllLast(new Integer[] {1, 2, 3, 4, 5, 6, 7});
+      list.rotate();
+      list.rotate();
+      list.removeEvery(3);
+      list.addAllFirst(List.of(8, 9));
+      list.removeFirst(1);
+      list.addFirst(0);
+    }
+    assertEquals("(0, 9, 3, 4, 6, 7, 2)", list.toString());
+
+    CircularlyLinkedList<Integer> reopened = new CircularlyLinkedList<>();
+    try (OperationLog<Integer> journal = open(path)) {
+      reopened.attachJournal(journal);
+    }
+    assertEquals(list.toString(), reopened.toString());
+  }
+
+  @Test
+  void replayRejectsRecordsTheListNeverWrites() throws IOException {
+    Path path = damaged(log);                   // holds removeLast and swap records
+    CircularlyLinkedList<Integer> list = new CircularlyLinkedList<>();
+    try (OperationLog<Integer> journal = open(path)) {
+      IOException e = assertThrows(IOException.class, () -> list.attachJournal(journal));
+      assertEquals("Record not supported by this list: removeLast", e.getMessage());
+    }
+  }
+
+  /** Returns the number of records in the log, without applying them. */
+  private static int countRecords(OperationLog<Integer> journal) throws IOException {
+    return journal.replay(new OperationLog.Target<Integer>() {
+      public void addFirst(Integer e) { }
+      public void addLast(Integer e) { }
+      public Integer removeFirst() { return null; }
+      public Integer removeLast() { return null; }
+      public void swap(int i, int j) { }
+      public void move(int from, int to) { }
+      public void permute(int[] newOrder) { }
+      public void rotate() { }
+      public void removeEvery(int k) { }
+    });
+  }
+}
@@ -0,0 +1,94 @@
+package com.symbols.YuenKwan.LI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class SymbolTableTest {
+
+  @Test
+  void internAssignsDenseCodesOnce() {
+    SymbolTable table = new SymbolTable();
+    assertEquals(0, table.intern("ab"));
+    assertEquals(1, table.intern("cd"));
+    assertEquals(0, table.intern(new String("ab")));
+    assertEquals(2, table.size());
+    assertEquals("cd", table.symbol(1));
+  }
+
+  @Test
+  void everyOccurrenceSharesOneInstance() {
+    SymbolTable table = new SymbolTable();
+    String first = new String("ab");
+    table.intern(first);
+    assertSame(first, table.symbol(table.intern(new String("ab"))));
+  }
+
+  @Test
+  void unknownSymbolsAndCodes() {
+    SymbolTable table = new SymbolTable();
+    table.intern("ab");
+    assertEquals(-1, table.code("zz"));
+    assertEquals(-1, table.code(null));
+    assertEquals(1, table.size(), "code does not intern");
+    assertThrows(IllegalArgumentException.class, () -> table.intern(null));
+    assertThrows(IndexOutOfBoundsException.class, () -> table.symbol(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> table.symbol(-1));
+  }
+
+  @Test
+  void growsPastInitialCapacity() {
+    SymbolTable table = new SymbolTable();
+    for (int i = 0; i < 1000; i++) assertEquals(i, table.intern("s" + i));
+    for (int i = 0; i < 1000; i++) {
+      assertEquals("s" + i, table.symbol(i));
+      assertEquals(i, table.code("s" + i));
+    }
+  }
+
+  @Test
+  void concurrentInternsAgreeOnCodes() throws Exception {
+    SymbolTable table = new SymbolTable();
+    int threads = 4, strings = 5000;
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<int[]>> results = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        long seed = t;
+        results.add(pool.submit(() -> {
+          List<Integer> order = new ArrayList<>();
+          for (int i = 0; i < strings; i++) order.add(i);
+          Collections.shuffle(order, new Random(seed));
+          int[] codes = new int[strings];
+          for (int i : order) {
+            codes[i] = table.intern("s" + i);
+            assertEquals("s" + i, table.symbol(codes[i]));
+          }
+          return codes;
+        }));
+      }
+      int[] first = results.get(0).get();
+      for (Future<int[]> result : results)
+        for (int i = 0; i < strings; i++) assertEquals(first[i], result.get()[i], "s" + i);
+      Set<Integer> distinct = new HashSet<>();
+      for (int code : first) distinct.add(code);
+      assertEquals(strings, distinct.size());
+      assertEquals(strings, table.size());
+      for (int i = 0; i < strings; i++) assertEquals(first[i], table.code("s" + i));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}